@@ -0,0 +1,49 @@
+package com.piseth.java.school.addressservice.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.piseth.java.school.addressservice.dto.ParsedRow;
+
+/**
+ *  Sorting a whole upload with ParsedRow.BY_DEPTH, the step between parse and write
+ *  (packed AdminCode keys, no regex and no trimmed copy per comparison).
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ByDepthSortBenchmark {
+
+	@Param({"1000", "10000", "100000", "500000"})
+	private int rows;
+
+	private List<ParsedRow> shuffled;
+
+	@Setup
+	public void setUp() {
+		shuffled = SyntheticAreas.shuffledRows(rows);
+	}
+
+	@Benchmark
+	public List<ParsedRow> sort() {
+		final List<ParsedRow> copy = new ArrayList<>(shuffled);
+		copy.sort(ParsedRow.BY_DEPTH);
+		return copy;
+	}
+}
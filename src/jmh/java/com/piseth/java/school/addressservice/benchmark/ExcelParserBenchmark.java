@@ -0,0 +1,84 @@
+package com.piseth.java.school.addressservice.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+
+import com.piseth.java.school.addressservice.service.ExcelAdminAreaParser;
+import com.piseth.java.school.addressservice.service.helper.PathFilePart;
+import com.piseth.java.school.addressservice.service.impl.ExcelAdminAreaParserImpl;
+import com.piseth.java.school.addressservice.service.impl.StreamingExcelAdminAreaParserImpl;
+
+/**
+ *  Whole upload parse, workbook on disk -> every ParsedRow :
+ *  -dom : ExcelAdminAreaParserImpl (joined bytes + XSSFWorkbook)
+ *  -streaming : StreamingExcelAdminAreaParserImpl (temp file + SAX reader)
+ *  -workbook : a file bundled in upload-template/ (the real subset and the error cases),
+ *   or synthetic-N, N rows generated once per trial with the upload template columns
+ *  -bundled files are read from -Dbenchmark.templates (default upload-template, relative
+ *   to the project directory that exec:exec runs in)
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ExcelParserBenchmark {
+
+	private static final String SYNTHETIC = "synthetic-";
+
+	@Param({"admin_areas_real_subset.xlsx", "admin_areas_error_cases.xlsx",
+		"synthetic-1000", "synthetic-10000", "synthetic-100000", "synthetic-500000"})
+	private String workbookName;
+
+	@Param({"dom", "streaming"})
+	private String parser;
+
+	private Path workbook;
+	private boolean generated;
+	private ExcelAdminAreaParser impl;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		generated = workbookName.startsWith(SYNTHETIC);
+		if(generated) {
+			workbook = SyntheticAreas.workbook(Integer.parseInt(workbookName.substring(SYNTHETIC.length())));
+		}else {
+			workbook = Path.of(System.getProperty("benchmark.templates", "upload-template"), workbookName).toAbsolutePath();
+			if(!Files.isRegularFile(workbook)) {
+				throw new IllegalStateException("Bundled workbook not found: " + workbook);
+			}
+		}
+		impl = "dom".equals(parser) ? new ExcelAdminAreaParserImpl() : new StreamingExcelAdminAreaParserImpl();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		if(generated) {
+			Files.deleteIfExists(workbook);
+		}
+	}
+
+	@Benchmark
+	public long parse() {
+		final PathFilePart file = new PathFilePart("file", workbook.getFileName().toString(), new HttpHeaders(), workbook);
+		return impl.parse(file).count().block();
+	}
+}
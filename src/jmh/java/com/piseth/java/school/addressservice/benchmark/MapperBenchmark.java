@@ -0,0 +1,71 @@
+package com.piseth.java.school.addressservice.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.piseth.java.school.addressservice.domain.AdminArea;
+import com.piseth.java.school.addressservice.dto.AdminAreaCreateRequest;
+import com.piseth.java.school.addressservice.mapper.AdminAreaMapper;
+
+/**
+ *  The generated AdminAreaMapperImpl (no Spring context) :
+ *  -buildPath / toEntity run once per imported row
+ *  -toResponse runs once per area of every list / tree read
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MapperBenchmark {
+
+	@Param({"1000", "10000", "100000", "500000"})
+	private int rows;
+
+	private final AdminAreaMapper mapper = Mappers.getMapper(AdminAreaMapper.class);
+	private List<AdminAreaCreateRequest> requests;
+	private List<AdminArea> areas;
+
+	@Setup
+	public void setUp() {
+		requests = SyntheticAreas.requests(rows);
+		areas = SyntheticAreas.areas(rows);
+		areas.forEach(area -> area.setPath(mapper.buildPath(area.getCode())));
+	}
+
+	@Benchmark
+	public void buildPath(final Blackhole bh) {
+		for(AdminAreaCreateRequest req : requests) {
+			bh.consume(mapper.buildPath(req.getCode()));
+		}
+	}
+
+	@Benchmark
+	public void toEntity(final Blackhole bh) {
+		for(AdminAreaCreateRequest req : requests) {
+			bh.consume(mapper.toEntity(req));
+		}
+	}
+
+	@Benchmark
+	public void toResponse(final Blackhole bh) {
+		for(AdminArea area : areas) {
+			bh.consume(mapper.toResponse(area));
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package com.piseth.java.school.addressservice.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import com.piseth.java.school.addressservice.domain.AdminArea;
+import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+import com.piseth.java.school.addressservice.dto.AdminAreaCreateRequest;
+import com.piseth.java.school.addressservice.dto.ParsedRow;
+
+/**
+ *  Synthetic admin areas for the benchmarks, shaped like the real data set :
+ *  -depth first, up to 25 districts per province, 15 communes per district,
+ *   13 villages per commune (about 520k rows in total), so most rows are villages
+ *  -Khmer names (non Latin shared strings) and English names on every row
+ *  -Same row order / columns as the upload template (code, level, parentCode, nameKh, nameEn)
+ * */
+final class SyntheticAreas {
+
+	private static final String[] HEADER = {"code", "level", "parentCode", "nameKh", "nameEn"};
+	private static final int[] FAN_OUT = {99, 25, 15, 13};
+	private static final String[] KHMER_PREFIX = {"ខេត្ត ", "ស្រុក ", "ឃុំ ", "ភូមិ "};
+	private static final long SEED = 42L;
+
+	private SyntheticAreas() {
+	}
+
+	static List<AdminAreaCreateRequest> requests(final int rows) {
+		final List<AdminAreaCreateRequest> out = new ArrayList<>(rows);
+		fill(out, null, 0, rows);
+		return out;
+	}
+
+	static List<AdminArea> areas(final int rows) {
+		final List<AdminArea> out = new ArrayList<>(rows);
+		for(AdminAreaCreateRequest req : requests(rows)) {
+			out.add(AdminArea.builder()
+					.code(req.getCode())
+					.level(req.getLevel())
+					.parentCode(req.getParentCode())
+					.nameKh(req.getNameKh())
+					.nameEn(req.getNameEn())
+					.build());
+		}
+		return out;
+	}
+
+	/**
+	 * Parsed rows in upload order shuffled, as an unsorted spreadsheet would give them,
+	 * with one invalid code in every thousand rows.
+	 */
+	static List<ParsedRow> shuffledRows(final int rows) {
+		final List<ParsedRow> out = new ArrayList<>(rows);
+		int line = 2;
+		for(AdminAreaCreateRequest req : requests(rows)) {
+			final String code = line % 1000 == 0 ? "x" + req.getCode() : req.getCode();
+			out.add(new ParsedRow(line++, code, req.getLevel(), req.getParentCode(), req.getNameKh(), req.getNameEn()));
+		}
+		Collections.shuffle(out, new Random(SEED));
+		return out;
+	}
+
+	/**
+	 * Writes the rows to a temp .xlsx (SXSSF, so 500k rows are written in constant memory).
+	 */
+	static Path workbook(final int rows) throws IOException {
+		final Path file = Files.createTempFile("admin-areas-" + rows + "-", ".xlsx");
+		final SXSSFWorkbook wb = new SXSSFWorkbook(100);
+		try(OutputStream out = Files.newOutputStream(file)) {
+			final Sheet sheet = wb.createSheet("adminAreas");
+			cells(sheet.createRow(0), HEADER);
+			int r = 1;
+			for(AdminAreaCreateRequest req : requests(rows)) {
+				cells(sheet.createRow(r++), new String[] {
+						req.getCode(), req.getLevel().name(), req.getParentCode(), req.getNameKh(), req.getNameEn()});
+			}
+			wb.write(out);
+		} finally {
+			wb.dispose();
+			wb.close();
+		}
+		return file;
+	}
+
+	private static void cells(final Row row, final String[] values) {
+		for(int c = 0; c < values.length; c++) {
+			if(values[c] != null) {
+				row.createCell(c).setCellValue(values[c]);
+			}
+		}
+	}
+
+	private static void fill(final List<AdminAreaCreateRequest> out, final String parentCode, final int depth, final int rows) {
+		final AdminLevel level = AdminLevel.values()[depth];
+		for(int i = 1; i <= FAN_OUT[depth] && out.size() < rows; i++) {
+			final String code = (parentCode == null ? "" : parentCode) + String.format("%02d", i);
+			out.add(AdminAreaCreateRequest.builder()
+					.code(code)
+					.level(level)
+					.parentCode(parentCode)
+					.nameKh(KHMER_PREFIX[depth] + code)
+					.nameEn(level.name().toLowerCase() + " " + code)
+					.build());
+			if(depth + 1 < FAN_OUT.length) {
+				fill(out, code, depth + 1, rows);
+			}
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package com.piseth.java.school.addressservice.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.piseth.java.school.addressservice.domain.AdminArea;
+import com.piseth.java.school.addressservice.validator.AdminAreaValidator;
+
+/**
+ *  AdminAreaValidator.validate over every row of an import, as prepare() calls it.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ValidatorBenchmark {
+
+	@Param({"1000", "10000", "100000", "500000"})
+	private int rows;
+
+	private final AdminAreaValidator validator = new AdminAreaValidator();
+	private List<AdminArea> areas;
+
+	@Setup
+	public void setUp() {
+		areas = SyntheticAreas.areas(rows);
+	}
+
+	@Benchmark
+	public int validate() {
+		int valid = 0;
+		for(AdminArea area : areas) {
+			validator.validate(area);
+			valid++;
+		}
+		return valid;
+	}
+}
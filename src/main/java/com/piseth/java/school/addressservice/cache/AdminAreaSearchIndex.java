@@ -0,0 +1,264 @@
+package com.piseth.java.school.addressservice.cache;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.piseth.java.school.addressservice.domain.AdminArea;
+import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+import com.piseth.java.school.addressservice.event.AdminAreaChangedEvent;
+import com.piseth.java.school.addressservice.repository.AdminAreaRepsitory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ *  In-memory prefix index over nameEn / nameKh.
+ *
+ *  -Keys are normalized words of each name plus the whole normalized name,
+ *   kept sorted in a ConcurrentSkipListMap so a prefix is one subMap range
+ *  -English : accents removed (NFKD, combining diacritics dropped), lower case
+ *  -Khmer : NFC, zero width spaces removed, vowel signs / coeng are kept (they are part of the word)
+ *  -UPSERTED / DELETED patch the index in place, RELOADED (and startup) rebuild it
+ *   from MongoDB and swap it in (same write counter check as AdminAreaSnapshotHolder)
+ * */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdminAreaSearchIndex {
+
+	private static final int MAX_RELOAD_ATTEMPTS = 5;
+	// a reload that lost the race with a write waits 100ms, 200ms, .. before reading again
+	private static final Duration RELOAD_RETRY_DELAY = Duration.ofMillis(100);
+
+	// combining diacritical marks only, \p{M} would also remove Khmer vowel signs
+	private static final Pattern LATIN_DIACRITICS = Pattern.compile("[\\u0300-\\u036F]");
+	private static final Pattern ZERO_WIDTH = Pattern.compile("[\\u200B-\\u200D\\uFEFF]");
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{M}\\p{N}]+");
+
+	private static final Comparator<Hit> BY_RANK = Comparator.comparingInt(Hit::score).reversed()
+			.thenComparingInt(hit -> hit.area().getLevel() != null ? hit.area().getLevel().depth() : Integer.MAX_VALUE)
+			.thenComparing(hit -> hit.area().getCode());
+
+	private final AdminAreaRepsitory repository;
+
+	private final AtomicReference<Index> current = new AtomicReference<>();
+	private final AtomicLong writes = new AtomicLong();
+
+	@Value("${address.search.enabled:true}")
+	private boolean enabled;
+
+	// matches looked at per query, bounds the latency of very short prefixes
+	@Value("${address.search.max-candidates:2000}")
+	private int maxCandidates;
+
+	/**
+	 * One scored match.
+	 *
+	 * score : 3 = a name equals the query, 2 = a name starts with the query,
+	 * 1 = every query word starts a word of the name
+	 */
+	public record Hit(AdminArea area, int score) {
+	}
+
+	public boolean isReady() {
+		return enabled && current.get() != null;
+	}
+
+	/**
+	 * @param parentCode only areas below this code (any depth), blank = everywhere
+	 * @return best hits first : score, then province before village, then code
+	 */
+	public List<Hit> search(final String query, final AdminLevel level, final String parentCode, final int limit) {
+		final Index index = current.get();
+		final String normalized = normalize(query);
+		if(index == null || normalized.isEmpty()) {
+			return List.of();
+		}
+
+		final List<String> words = List.of(normalized.split(" "));
+		final String longest = words.stream().max(Comparator.comparingInt(String::length)).orElse(normalized);
+		final boolean hasParent = StringUtils.hasText(parentCode);
+
+		final Set<String> candidates = new LinkedHashSet<>();
+		for(Set<String> codes : index.range(longest).values()) {
+			candidates.addAll(codes);
+			if(candidates.size() >= maxCandidates) {
+				break;
+			}
+		}
+
+		final List<Hit> hits = new ArrayList<>();
+		for(String code : candidates) {
+			final Entry entry = index.entries.get(code);
+			if(entry == null
+					|| (level != null && entry.area().getLevel() != level)
+					|| (hasParent && (code.equals(parentCode) || !code.startsWith(parentCode)))) {
+				continue;
+			}
+			final int score = entry.score(normalized, words);
+			if(score > 0) {
+				hits.add(new Hit(entry.area(), score));
+			}
+		}
+
+		hits.sort(BY_RANK);
+		return hits.size() > limit ? hits.subList(0, limit) : hits;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if(!enabled) {
+			return;
+		}
+		reload().subscribe(
+				index -> log.info("AdminArea search index loaded: {} areas, {} keys", index.entries.size(), index.keys.size()),
+				ex -> log.warn("AdminArea search index load failed, search returns nothing", ex));
+	}
+
+	@EventListener
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void onChanged(final AdminAreaChangedEvent event) {
+		if(!enabled) {
+			return;
+		}
+		synchronized (this) {
+			writes.incrementAndGet();
+			final Index index = current.get();
+			if(index == null) {
+				return;
+			}
+			switch (event.type()) {
+			case UPSERTED -> index.put(event.area());
+			case DELETED -> index.remove(event.code());
+			case RELOADED -> reload().subscribe(
+					i -> log.debug("AdminArea search index reloaded: {} areas", i.entries.size()),
+					ex -> log.warn("AdminArea search index reload failed, keeping previous one", ex));
+			}
+		}
+	}
+
+	public Mono<Index> reload() {
+		return Mono.defer(() -> {
+			final long seen = writes.get();
+			return repository.findAll()
+					.collect(Index::new, Index::put)
+					.flatMap(index -> Mono.justOrEmpty(swapIfUnchanged(seen, index)));
+		})
+		.repeatWhenEmpty(MAX_RELOAD_ATTEMPTS, attempts -> attempts
+				.concatMap(attempt -> Mono.delay(RELOAD_RETRY_DELAY.multipliedBy(1L << attempt))));
+	}
+
+	private synchronized Index swapIfUnchanged(final long seen, final Index index) {
+		if(writes.get() != seen) {
+			return null;
+		}
+		current.set(index);
+		return index;
+	}
+
+	/**
+	 * Lower case, Latin accents removed, zero width spaces removed, every run of
+	 * characters that are not letters / marks / digits becomes one space.
+	 */
+	public static String normalize(final String text) {
+		if(text == null) {
+			return "";
+		}
+		String s = Normalizer.normalize(text, Normalizer.Form.NFKD);
+		s = LATIN_DIACRITICS.matcher(s).replaceAll("");
+		s = ZERO_WIDTH.matcher(s).replaceAll("");
+		s = Normalizer.normalize(s, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+		return SEPARATORS.matcher(s).replaceAll(" ").trim();
+	}
+
+	/**
+	 * Mutable index, only modified under the holder lock, read concurrently.
+	 */
+	public static final class Index {
+
+		private final ConcurrentSkipListMap<String, Set<String>> keys = new ConcurrentSkipListMap<>();
+		private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+		private NavigableMap<String, Set<String>> range(final String prefix) {
+			return keys.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+		}
+
+		private void put(final AdminArea area) {
+			remove(area.getCode());
+			final Entry entry = Entry.of(area);
+			entries.put(area.getCode(), entry);
+			for(String key : entry.keys()) {
+				keys.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(area.getCode());
+			}
+		}
+
+		private void remove(final String code) {
+			final Entry previous = entries.remove(code);
+			if(previous == null) {
+				return;
+			}
+			for(String key : previous.keys()) {
+				keys.computeIfPresent(key, (k, codes) -> {
+					codes.remove(code);
+					return codes.isEmpty() ? null : codes;
+				});
+			}
+		}
+	}
+
+	private record Entry(AdminArea area, List<String> names, List<String> words) {
+
+		private static Entry of(final AdminArea area) {
+			final List<String> names = new ArrayList<>(2);
+			final List<String> words = new ArrayList<>();
+			for(String name : new String[] {area.getNameEn(), area.getNameKh()}) {
+				final String normalized = normalize(name);
+				if(!normalized.isEmpty()) {
+					names.add(normalized);
+					words.addAll(List.of(normalized.split(" ")));
+				}
+			}
+			return new Entry(area, names, words);
+		}
+
+		private Set<String> keys() {
+			final Set<String> keys = new LinkedHashSet<>(names);
+			keys.addAll(words);
+			return keys;
+		}
+
+		private int score(final String query, final List<String> queryWords) {
+			if(names.contains(query)) {
+				return 3;
+			}
+			if(names.stream().anyMatch(name -> name.startsWith(query))) {
+				return 2;
+			}
+			final boolean allWords = queryWords.stream()
+					.allMatch(q -> words.stream().anyMatch(w -> w.startsWith(q)));
+			return allWords ? 1 : 0;
+		}
+	}
+}
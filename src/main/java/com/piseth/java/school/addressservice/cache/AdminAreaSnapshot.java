@@ -0,0 +1,257 @@
+package com.piseth.java.school.addressservice.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.util.StringUtils;
+
+import com.piseth.java.school.addressservice.domain.AdminArea;
+import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+
+/**
+ *  Immutable in-memory copy of the whole admin area hierarchy.
+ *
+ *  -Indexed by code, by parentCode and by level
+ *  -Every list is sorted by code (same order as the repository DEFAULT_SORT)
+ *  -Writes never modify a snapshot, they build a new one (copy on write)
+ *  -Entities held here are shared, callers must map them and never mutate them
+ *  -A snapshot can also be backed by the mapped snapshot file (see {@link #mapped}), the first
+ *   write then copies it onto the heap
+ * */
+public final class AdminAreaSnapshot {
+
+	private static final Comparator<AdminArea> BY_CODE = Comparator.comparing(AdminArea::getCode);
+
+	private final Map<String, AdminArea> byCode;
+	private final Map<String, List<AdminArea>> byParent;
+	private final Map<AdminLevel, List<AdminArea>> byLevel;
+	private final List<AdminArea> all;
+
+	private AdminAreaSnapshot(final Map<String, AdminArea> byCode,
+			final Map<String, List<AdminArea>> byParent,
+			final Map<AdminLevel, List<AdminArea>> byLevel,
+			final List<AdminArea> all) {
+		this.byCode = byCode;
+		this.byParent = byParent;
+		this.byLevel = byLevel;
+		this.all = all;
+	}
+
+	public static AdminAreaSnapshot empty() {
+		return of(List.of());
+	}
+
+	public static AdminAreaSnapshot of(final Collection<AdminArea> areas) {
+		final List<AdminArea> sorted = new ArrayList<>(areas);
+		sorted.sort(BY_CODE);
+
+		final Map<String, AdminArea> byCode = new HashMap<>(Math.max(16, sorted.size() * 2));
+		final Map<String, List<AdminArea>> byParent = new HashMap<>();
+		final Map<AdminLevel, List<AdminArea>> byLevel = new EnumMap<>(AdminLevel.class);
+
+		for(AdminArea area : sorted) {
+			byCode.put(area.getCode(), area);
+			if(area.getParentCode() != null) {
+				byParent.computeIfAbsent(area.getParentCode(), k -> new ArrayList<>()).add(area);
+			}
+			if(area.getLevel() != null) {
+				byLevel.computeIfAbsent(area.getLevel(), k -> new ArrayList<>()).add(area);
+			}
+		}
+
+		byParent.replaceAll((k, v) -> Collections.unmodifiableList(v));
+		byLevel.replaceAll((k, v) -> Collections.unmodifiableList(v));
+
+		return new AdminAreaSnapshot(byCode, byParent, byLevel, Collections.unmodifiableList(sorted));
+	}
+
+	/**
+	 * Snapshot over a verified snapshot file, every index is a view over the mapping.
+	 */
+	static AdminAreaSnapshot mapped(final MappedAdminAreas file) {
+		final Map<AdminLevel, List<AdminArea>> byLevel = new EnumMap<>(AdminLevel.class);
+		for(AdminLevel level : AdminLevel.values()) {
+			final List<AdminArea> areas = file.level(level);
+			if(!areas.isEmpty()) {
+				byLevel.put(level, areas);
+			}
+		}
+		return new AdminAreaSnapshot(file.byCode(), file.byParent(), byLevel, file.all());
+	}
+
+	public Optional<AdminArea> get(final String code) {
+		if(code == null) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(byCode.get(code));
+	}
+
+	public boolean contains(final String code) {
+		return code != null && byCode.containsKey(code);
+	}
+
+	public int size() {
+		return all.size();
+	}
+
+	/**
+	 * Same filter semantics as AdminAreaServiceImpl.list : a null level or a blank
+	 * parentCode means "no filter" on that field.
+	 */
+	public List<AdminArea> list(final AdminLevel level, final String parentCode) {
+		final boolean hasLevel = Objects.nonNull(level);
+		final boolean hasParent = StringUtils.hasText(parentCode);
+
+		if(hasParent) {
+			final List<AdminArea> children = byParent.getOrDefault(parentCode, List.of());
+			if(!hasLevel) {
+				return children;
+			}
+			return children.stream().filter(a -> a.getLevel() == level).toList();
+		}
+
+		if(hasLevel) {
+			return byLevel.getOrDefault(level, List.of());
+		}
+
+		return all;
+	}
+
+	/**
+	 * Keyset page of {@link #list} : the entries after {@code afterCode} (null = from the start),
+	 * at most {@code limit} of them.
+	 */
+	public List<AdminArea> page(final AdminLevel level, final String parentCode, final String afterCode, final int limit) {
+		final List<AdminArea> sorted = list(level, parentCode);
+		int from = 0;
+		if(afterCode != null) {
+			final int pos = indexOf(sorted, afterCode);
+			from = pos >= 0 ? pos + 1 : -(pos + 1);
+		}
+		return sorted.subList(from, Math.min(sorted.size(), from + limit));
+	}
+
+	/**
+	 * Every area below {@code code} whose level is in {@code levels}, sorted by code.
+	 * Descendant codes all start with the code, so they sit right after it in {@code all}.
+	 */
+	public List<AdminArea> descendants(final String code, final Set<AdminLevel> levels) {
+		final int pos = indexOf(all, code);
+		final List<AdminArea> result = new ArrayList<>();
+		for(int i = pos >= 0 ? pos + 1 : -(pos + 1); i < all.size(); i++) {
+			final AdminArea area = all.get(i);
+			if(!area.getCode().startsWith(code)) {
+				break;
+			}
+			if(levels.contains(area.getLevel())) {
+				result.add(area);
+			}
+		}
+		return result;
+	}
+
+	public AdminAreaSnapshot withUpserted(final AdminArea area) {
+		final AdminArea previous = byCode.get(area.getCode());
+
+		final Map<String, AdminArea> nextByCode = new HashMap<>(byCode);
+		nextByCode.put(area.getCode(), area);
+
+		final Map<String, List<AdminArea>> nextByParent = new HashMap<>(byParent);
+		final Map<AdminLevel, List<AdminArea>> nextByLevel = new EnumMap<>(AdminLevel.class);
+		nextByLevel.putAll(byLevel);
+
+		if(previous != null) {
+			removeFrom(nextByParent, previous.getParentCode(), previous.getCode());
+			removeFrom(nextByLevel, previous.getLevel(), previous.getCode());
+		}
+		addTo(nextByParent, area.getParentCode(), area);
+		addTo(nextByLevel, area.getLevel(), area);
+
+		return new AdminAreaSnapshot(nextByCode, nextByParent, nextByLevel, replace(all, area.getCode(), area));
+	}
+
+	public AdminAreaSnapshot withRemoved(final String code) {
+		final AdminArea previous = byCode.get(code);
+		if(previous == null) {
+			return this;
+		}
+
+		final Map<String, AdminArea> nextByCode = new HashMap<>(byCode);
+		nextByCode.remove(code);
+
+		final Map<String, List<AdminArea>> nextByParent = new HashMap<>(byParent);
+		final Map<AdminLevel, List<AdminArea>> nextByLevel = new EnumMap<>(AdminLevel.class);
+		nextByLevel.putAll(byLevel);
+
+		removeFrom(nextByParent, previous.getParentCode(), code);
+		removeFrom(nextByLevel, previous.getLevel(), code);
+
+		return new AdminAreaSnapshot(nextByCode, nextByParent, nextByLevel, replace(all, code, null));
+	}
+
+	private static <K> void addTo(final Map<K, List<AdminArea>> index, final K key, final AdminArea area) {
+		if(key == null) {
+			return;
+		}
+		index.put(key, replace(index.getOrDefault(key, List.of()), area.getCode(), area));
+	}
+
+	private static <K> void removeFrom(final Map<K, List<AdminArea>> index, final K key, final String code) {
+		if(key == null) {
+			return;
+		}
+		final List<AdminArea> next = replace(index.getOrDefault(key, List.of()), code, null);
+		if(next.isEmpty()) {
+			index.remove(key);
+		}else {
+			index.put(key, next);
+		}
+	}
+
+	/**
+	 * Copy of a code sorted list where the entry for {@code code} is replaced by
+	 * {@code area}, inserted at its sorted position, or removed when area is null.
+	 */
+	private static List<AdminArea> replace(final List<AdminArea> sorted, final String code, final AdminArea area) {
+		final List<AdminArea> next = new ArrayList<>(sorted.size() + 1);
+		next.addAll(sorted);
+
+		final int pos = indexOf(next, code);
+		if(pos >= 0) {
+			if(area == null) {
+				next.remove(pos);
+			}else {
+				next.set(pos, area);
+			}
+		}else if(area != null) {
+			next.add(-(pos + 1), area);
+		}
+		return Collections.unmodifiableList(next);
+	}
+
+	private static int indexOf(final List<AdminArea> sorted, final String code) {
+		int low = 0;
+		int high = sorted.size() - 1;
+		while(low <= high) {
+			final int mid = (low + high) >>> 1;
+			final int cmp = sorted.get(mid).getCode().compareTo(code);
+			if(cmp < 0) {
+				low = mid + 1;
+			}else if(cmp > 0) {
+				high = mid - 1;
+			}else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+}
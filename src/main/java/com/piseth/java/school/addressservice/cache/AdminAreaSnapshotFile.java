@@ -0,0 +1,334 @@
+package com.piseth.java.school.addressservice.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.piseth.java.school.addressservice.domain.AdminArea;
+import com.piseth.java.school.addressservice.domain.AdminCode;
+import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *  Local binary copy of the whole AdminAreaSnapshot, so a cold start (or a MongoDB outage)
+ *  can serve reads before MongoDB answers.
+ *
+ *  Layout (big endian) :
+ *  -header (64 bytes) : magic, format version, record count, section offsets, CRC32C
+ *  -records : one fixed width record per area, sorted by code
+ *   code / parentCode (packed AdminCode), parent record index, level, nameKh / nameEn
+ *   (string table offsets), createAt / updateAt (epoch millis), version
+ *  -children index : record indexes sorted by parent code then code (one range per parent)
+ *  -level index : record indexes sorted by level then code, header holds the range of each level
+ *  -string table : [int length][UTF-8 bytes], identical names stored once
+ *
+ *  -Written to a temp file then moved, so a crash never leaves half a file
+ *  -Read through a read only mapping, verified (magic, format version, sizes, CRC32C)
+ *   before it is used, a file that fails any check is ignored
+ * */
+@Slf4j
+@Component
+public class AdminAreaSnapshotFile {
+
+	static final int MAGIC = 0x41415346; // "AASF"
+	static final int FORMAT_VERSION = 1;
+	static final int HEADER_SIZE = 64;
+	static final long NULL_LONG = Long.MIN_VALUE;
+
+	// header fields
+	private static final int H_MAGIC = 0;
+	private static final int H_VERSION = 4;
+	private static final int H_COUNT = 8;
+	private static final int H_RECORD_SIZE = 12;
+	private static final int H_CHILDREN = 16;
+	private static final int H_CHILDREN_COUNT = 20;
+	private static final int H_LEVELS = 24;
+	private static final int H_LEVEL_START = 28; // AdminLevel count + 1 ints
+	private static final int H_STRINGS = 48;
+	private static final int H_LENGTH = 52;
+	private static final int H_CHECKSUM = 56;
+
+	// record fields
+	static final int CODE = 0;
+	static final int PARENT_CODE = 4;
+	static final int PARENT = 8;
+	static final int LEVEL = 12;
+	static final int NAME_KH = 16;
+	static final int NAME_EN = 20;
+	static final int CREATE_AT = 24;
+	static final int UPDATE_AT = 32;
+	static final int VERSION = 40;
+	static final int RECORD_SIZE = 48;
+
+	private static final int LEVEL_COUNT = AdminLevel.values().length;
+
+	private final Path file;
+	private final boolean enabled;
+
+	public AdminAreaSnapshotFile(@Value("${address.snapshot.file.path:./data/admin-areas.snapshot}") final String file,
+			@Value("${address.snapshot.file.enabled:true}") final boolean enabled) {
+		this.file = Path.of(file);
+		this.enabled = enabled;
+	}
+
+	/**
+	 * @return a snapshot backed by the mapped file, empty when there is no usable file
+	 */
+	public Optional<AdminAreaSnapshot> load() {
+		if(!enabled || !Files.isRegularFile(file)) {
+			return Optional.empty();
+		}
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			if(size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+				log.warn("AdminArea snapshot file {} has an invalid size {}, ignored", file, size);
+				return Optional.empty();
+			}
+			// the mapping stays valid after the channel is closed
+			final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			return verify(buffer).map(AdminAreaSnapshot::mapped);
+		} catch (IOException ex) {
+			log.warn("Could not map AdminArea snapshot file {}", file, ex);
+			return Optional.empty();
+		}
+	}
+
+	private Optional<MappedAdminAreas> verify(final ByteBuffer buffer) {
+		final int size = buffer.capacity();
+		if(buffer.getInt(H_MAGIC) != MAGIC) {
+			log.warn("{} is not an AdminArea snapshot file, ignored", file);
+			return Optional.empty();
+		}
+		if(buffer.getInt(H_VERSION) != FORMAT_VERSION || buffer.getInt(H_RECORD_SIZE) != RECORD_SIZE) {
+			log.info("AdminArea snapshot file {} has format {}, expected {}, ignored", file, buffer.getInt(H_VERSION), FORMAT_VERSION);
+			return Optional.empty();
+		}
+		if(buffer.getInt(H_LENGTH) != size || checksum(buffer, size) != buffer.getInt(H_CHECKSUM)) {
+			log.warn("AdminArea snapshot file {} is truncated or corrupt, ignored", file);
+			return Optional.empty();
+		}
+
+		final int count = buffer.getInt(H_COUNT);
+		final int children = buffer.getInt(H_CHILDREN);
+		final int childrenCount = buffer.getInt(H_CHILDREN_COUNT);
+		final int levels = buffer.getInt(H_LEVELS);
+		final int strings = buffer.getInt(H_STRINGS);
+		final int[] levelStart = new int[LEVEL_COUNT + 1];
+		for(int i = 0; i <= LEVEL_COUNT; i++) {
+			levelStart[i] = buffer.getInt(H_LEVEL_START + i * Integer.BYTES);
+		}
+
+		final boolean consistent = count >= 0
+				&& children == HEADER_SIZE + (long) count * RECORD_SIZE
+				&& childrenCount >= 0 && childrenCount <= count
+				&& levels == children + (long) childrenCount * Integer.BYTES
+				&& levelStart[LEVEL_COUNT] <= count
+				&& strings == levels + (long) levelStart[LEVEL_COUNT] * Integer.BYTES
+				&& strings <= size;
+		if(!consistent) {
+			log.warn("AdminArea snapshot file {} has inconsistent sections, ignored", file);
+			return Optional.empty();
+		}
+		return Optional.of(new MappedAdminAreas(buffer, count, children, childrenCount, levels, levelStart, strings));
+	}
+
+	// CRC32C of the whole file except the checksum field itself (no copy on a mapped buffer)
+	private static int checksum(final ByteBuffer buffer, final int size) {
+		final CRC32C crc = new CRC32C();
+		crc.update(buffer.duplicate().position(0).limit(H_CHECKSUM));
+		crc.update(buffer.duplicate().position(H_CHECKSUM + Integer.BYTES).limit(size));
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * Writes every area of the snapshot, replacing the previous file.
+	 *
+	 * @return false when the file is disabled or the snapshot holds a code that does not pack
+	 */
+	public boolean save(final AdminAreaSnapshot snapshot) {
+		if(!enabled) {
+			return false;
+		}
+		final Optional<ByteBuffer> image = encode(snapshot.list(null, null));
+		if(image.isEmpty()) {
+			return false;
+		}
+		try {
+			final Path dir = file.toAbsolutePath().getParent();
+			Files.createDirectories(dir);
+			final Path tmp = Files.createTempFile(dir, "admin-areas-", ".snapshot.tmp");
+			try(FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+				final ByteBuffer buffer = image.get();
+				while(buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				channel.force(true);
+			}
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		} catch (IOException ex) {
+			log.warn("Could not save AdminArea snapshot file {}", file, ex);
+			return false;
+		}
+	}
+
+	private Optional<ByteBuffer> encode(final List<AdminArea> areas) {
+		final int count = areas.size();
+		final int[] codes = new int[count];
+		final int[] parentCodes = new int[count];
+		for(int i = 0; i < count; i++) {
+			final AdminArea area = areas.get(i);
+			codes[i] = AdminCode.parse(area.getCode());
+			parentCodes[i] = area.getParentCode() == null ? 0 : AdminCode.parse(area.getParentCode());
+			if(!AdminCode.isValid(codes[i]) || parentCodes[i] == AdminCode.INVALID) {
+				log.warn("AdminArea {} has a code that does not pack, snapshot file not written", area.getCode());
+				return Optional.empty();
+			}
+		}
+
+		// record order = code order, the snapshot list is already sorted by code
+		final Integer[] order = boxedRange(count);
+		Arrays.sort(order, (a, b) -> MappedAdminAreas.compare(codes[a], codes[b]));
+
+		final Map<Integer, Integer> recordOf = new HashMap<>(Math.max(16, count * 2));
+		for(int r = 0; r < count; r++) {
+			recordOf.put(codes[order[r]], r);
+		}
+
+		final Integer[] children = Arrays.stream(boxedRange(count))
+				.filter(r -> parentCodes[order[r]] != 0)
+				.sorted((a, b) -> {
+					final int cmp = MappedAdminAreas.compare(parentCodes[order[a]], parentCodes[order[b]]);
+					return cmp != 0 ? cmp : Integer.compare(a, b);
+				})
+				.toArray(Integer[]::new);
+
+		final Integer[] levels = Arrays.stream(boxedRange(count))
+				.filter(r -> areas.get(order[r]).getLevel() != null)
+				.sorted((a, b) -> {
+					final int cmp = areas.get(order[a]).getLevel().compareTo(areas.get(order[b]).getLevel());
+					return cmp != 0 ? cmp : Integer.compare(a, b);
+				})
+				.toArray(Integer[]::new);
+
+		final StringTable strings = new StringTable();
+		final int[] nameKh = new int[count];
+		final int[] nameEn = new int[count];
+		for(int r = 0; r < count; r++) {
+			nameKh[r] = strings.offset(areas.get(order[r]).getNameKh());
+			nameEn[r] = strings.offset(areas.get(order[r]).getNameEn());
+		}
+
+		final int childrenOffset = HEADER_SIZE + count * RECORD_SIZE;
+		final int levelsOffset = childrenOffset + children.length * Integer.BYTES;
+		final int stringsOffset = levelsOffset + levels.length * Integer.BYTES;
+		final int size = stringsOffset + strings.size();
+		final ByteBuffer buffer = ByteBuffer.allocate(size);
+
+		buffer.putInt(H_MAGIC, MAGIC);
+		buffer.putInt(H_VERSION, FORMAT_VERSION);
+		buffer.putInt(H_COUNT, count);
+		buffer.putInt(H_RECORD_SIZE, RECORD_SIZE);
+		buffer.putInt(H_CHILDREN, childrenOffset);
+		buffer.putInt(H_CHILDREN_COUNT, children.length);
+		buffer.putInt(H_LEVELS, levelsOffset);
+		buffer.putInt(H_STRINGS, stringsOffset);
+		buffer.putInt(H_LENGTH, size);
+
+		for(int r = 0; r < count; r++) {
+			final AdminArea area = areas.get(order[r]);
+			final int at = HEADER_SIZE + r * RECORD_SIZE;
+			buffer.putInt(at + CODE, codes[order[r]]);
+			buffer.putInt(at + PARENT_CODE, parentCodes[order[r]]);
+			buffer.putInt(at + PARENT, recordOf.getOrDefault(parentCodes[order[r]], -1));
+			buffer.putInt(at + LEVEL, area.getLevel() != null ? area.getLevel().ordinal() : -1);
+			buffer.putInt(at + NAME_KH, nameKh[r]);
+			buffer.putInt(at + NAME_EN, nameEn[r]);
+			buffer.putLong(at + CREATE_AT, area.getCreateAt() != null ? area.getCreateAt().toEpochMilli() : NULL_LONG);
+			buffer.putLong(at + UPDATE_AT, area.getUpdateAt() != null ? area.getUpdateAt().toEpochMilli() : NULL_LONG);
+			buffer.putLong(at + VERSION, area.getVersion() != null ? area.getVersion() : NULL_LONG);
+		}
+
+		for(int i = 0; i < children.length; i++) {
+			buffer.putInt(childrenOffset + i * Integer.BYTES, children[i]);
+		}
+
+		final int[] levelStart = new int[LEVEL_COUNT + 1];
+		for(int i = 0; i < levels.length; i++) {
+			buffer.putInt(levelsOffset + i * Integer.BYTES, levels[i]);
+			levelStart[areas.get(order[levels[i]]).getLevel().ordinal() + 1]++;
+		}
+		for(int i = 0; i < LEVEL_COUNT; i++) {
+			levelStart[i + 1] += levelStart[i];
+		}
+		for(int i = 0; i <= LEVEL_COUNT; i++) {
+			buffer.putInt(H_LEVEL_START + i * Integer.BYTES, levelStart[i]);
+		}
+
+		buffer.put(stringsOffset, strings.bytes(), 0, strings.size());
+		buffer.putInt(H_CHECKSUM, checksum(buffer, size));
+		return Optional.of(buffer.rewind());
+	}
+
+	private static Integer[] boxedRange(final int count) {
+		final Integer[] range = new Integer[count];
+		for(int i = 0; i < count; i++) {
+			range[i] = i;
+		}
+		return range;
+	}
+
+	/**
+	 * Append only [int length][UTF-8 bytes] table, same string = same offset.
+	 */
+	private static final class StringTable {
+
+		private final Map<String, Integer> offsets = new HashMap<>();
+		private ByteBuffer bytes = ByteBuffer.allocate(1 << 16);
+
+		int offset(final String value) {
+			if(value == null) {
+				return -1;
+			}
+			return offsets.computeIfAbsent(value, v -> {
+				final byte[] utf8 = v.getBytes(StandardCharsets.UTF_8);
+				ensure(Integer.BYTES + utf8.length);
+				final int at = bytes.position();
+				bytes.putInt(utf8.length).put(utf8);
+				return at;
+			});
+		}
+
+		private void ensure(final int more) {
+			if(bytes.remaining() < more) {
+				final ByteBuffer next = ByteBuffer.allocate(Math.max(bytes.capacity() * 2, bytes.position() + more));
+				next.put(bytes.flip());
+				bytes = next;
+			}
+		}
+
+		byte[] bytes() {
+			return bytes.array();
+		}
+
+		int size() {
+			return bytes.position();
+		}
+	}
+}
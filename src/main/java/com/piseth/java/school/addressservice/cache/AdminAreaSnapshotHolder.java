@@ -0,0 +1,167 @@
+package com.piseth.java.school.addressservice.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.piseth.java.school.addressservice.event.AdminAreaChangedEvent;
+import com.piseth.java.school.addressservice.repository.AdminAreaRepsitory;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+/**
+ *  -Loads the full AdminAreaSnapshot once the application is ready
+ *  -Swaps it atomically (copy on write) on every AdminAreaChangedEvent
+ *  -current() is empty while loading or when address.snapshot.enabled=false,
+ *   callers then fall back to the repository
+ *  -Startup first maps the local snapshot file (AdminAreaSnapshotFile) and serves it until
+ *   MongoDB answers, the MongoDB load is then retried until it succeeds
+ *  -The file is rewritten after every full load and on shutdown when writes happened since
+ * */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdminAreaSnapshotHolder {
+
+	private static final int MAX_RELOAD_ATTEMPTS = 5;
+	// a reload that lost the race with a write waits 100ms, 200ms, .. before reading again
+	private static final Duration RELOAD_RETRY_DELAY = Duration.ofMillis(100);
+
+	private final AdminAreaRepsitory repository;
+	private final DatasetVersion datasetVersion;
+	private final AdminAreaSnapshotFile snapshotFile;
+
+	private final AtomicReference<AdminAreaSnapshot> current = new AtomicReference<>();
+
+	// bumped on every write, lets a reload detect that it raced with a write
+	private final AtomicLong writes = new AtomicLong();
+
+	// writes value of the snapshot last saved to (or read from) the file
+	private final AtomicLong savedWrites = new AtomicLong(-1);
+
+	@Value("${address.snapshot.enabled:true}")
+	private boolean enabled;
+
+	@Value("${address.snapshot.file.max-retry-backoff:1m}")
+	private Duration maxRetryBackoff;
+
+	public Optional<AdminAreaSnapshot> current() {
+		if(!enabled) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(current.get());
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if(!enabled) {
+			log.info("AdminArea snapshot disabled, reads go to MongoDB");
+			return;
+		}
+		final boolean fromFile = loadFile();
+		final Mono<AdminAreaSnapshot> load = fromFile
+				? reload().retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(maxRetryBackoff)
+						.doBeforeRetry(signal -> log.warn("AdminArea snapshot load from MongoDB failed ({} attempts), serving the snapshot file",
+								signal.totalRetries() + 1)))
+				: reload();
+		load.subscribe(
+				s -> log.info("AdminArea snapshot loaded: {} areas", s.size()),
+				ex -> log.warn("AdminArea snapshot load failed, reads go to MongoDB", ex));
+	}
+
+	private boolean loadFile() {
+		final long start = System.nanoTime();
+		final Optional<AdminAreaSnapshot> mapped = snapshotFile.load();
+		mapped.ifPresent(snapshot -> {
+			synchronized (this) {
+				current.set(snapshot);
+				savedWrites.set(writes.get());
+				datasetVersion.bump();
+			}
+			log.info("AdminArea snapshot file mapped: {} areas in {} ms", snapshot.size(), (System.nanoTime() - start) / 1_000_000);
+		});
+		return mapped.isPresent();
+	}
+
+	@PreDestroy
+	public void saveOnShutdown() {
+		final AdminAreaSnapshot snapshot = current.get();
+		final long seen = writes.get();
+		if(enabled && snapshot != null && savedWrites.get() != seen && snapshotFile.save(snapshot)) {
+			savedWrites.set(seen);
+		}
+	}
+
+	// before DatasetVersion, so a new version never serves the previous snapshot
+	@EventListener
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void onChanged(final AdminAreaChangedEvent event) {
+		if(!enabled) {
+			return;
+		}
+		synchronized (this) {
+			writes.incrementAndGet();
+			final AdminAreaSnapshot snapshot = current.get();
+			if(snapshot == null) {
+				return;
+			}
+			switch (event.type()) {
+			case UPSERTED -> current.set(snapshot.withUpserted(event.area()));
+			case DELETED -> current.set(snapshot.withRemoved(event.code()));
+			case RELOADED -> reload().subscribe(
+					s -> log.debug("AdminArea snapshot reloaded: {} areas", s.size()),
+					ex -> log.warn("AdminArea snapshot reload failed, keeping previous one", ex));
+			}
+		}
+	}
+
+	/**
+	 * Reads the whole collection and swaps it in, retrying when a write happened
+	 * while the collection was being read (so that write is not lost).
+	 */
+	public Mono<AdminAreaSnapshot> reload() {
+		return Mono.defer(() -> {
+			final long seen = writes.get();
+			return repository.findAll()
+					.collectList()
+					.map(AdminAreaSnapshot::of)
+					.flatMap(snapshot -> Mono.justOrEmpty(swapIfUnchanged(seen, snapshot)))
+					.doOnNext(snapshot -> saveFile(seen, snapshot));
+		})
+		.repeatWhenEmpty(MAX_RELOAD_ATTEMPTS, attempts -> attempts
+				.concatMap(attempt -> Mono.delay(RELOAD_RETRY_DELAY.multipliedBy(1L << attempt))));
+	}
+
+	// off the event loop, a full file is tens of MB
+	private void saveFile(final long seen, final AdminAreaSnapshot snapshot) {
+		Schedulers.boundedElastic().schedule(() -> {
+			if(snapshotFile.save(snapshot)) {
+				savedWrites.set(seen);
+				log.debug("AdminArea snapshot file saved: {} areas", snapshot.size());
+			}
+		});
+	}
+
+	private synchronized AdminAreaSnapshot swapIfUnchanged(final long seen, final AdminAreaSnapshot snapshot) {
+		if(writes.get() != seen) {
+			return null;
+		}
+		current.set(snapshot);
+		datasetVersion.bump();
+		return snapshot;
+	}
+
+}
@@ -0,0 +1,42 @@
+package com.piseth.java.school.addressservice.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.piseth.java.school.addressservice.event.AdminAreaChangedEvent;
+
+/**
+ *  -Goes up on every create / update / delete / import (every AdminAreaChangedEvent)
+ *  -Runs after the other listeners, so read models are already updated when a new
+ *   version becomes visible (a reload bumps it once more when it is swapped in)
+ *  -The startup time is part of the ETag, so versions of a previous run never match
+ * */
+@Component
+public class DatasetVersion {
+
+	private final long epoch = System.currentTimeMillis();
+	private final AtomicLong version = new AtomicLong();
+
+	public long current() {
+		return version.get();
+	}
+
+	// strong ETag value, quotes included
+	public String etag() {
+		return "\"" + Long.toString(epoch, 36) + "-" + version.get() + "\"";
+	}
+
+	public void bump() {
+		version.incrementAndGet();
+	}
+
+	@EventListener
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	public void onChanged(final AdminAreaChangedEvent event) {
+		bump();
+	}
+}
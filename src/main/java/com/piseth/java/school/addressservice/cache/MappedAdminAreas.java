@@ -0,0 +1,318 @@
+package com.piseth.java.school.addressservice.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import com.piseth.java.school.addressservice.domain.AdminArea;
+import com.piseth.java.school.addressservice.domain.AdminCode;
+import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+
+/**
+ *  Read-only view over a verified snapshot file (layout in AdminAreaSnapshotFile).
+ *
+ *  -Nothing is copied on open, lookups binary search the fixed width code columns of the mapping
+ *  -An AdminArea is decoded from its record on each access, names from the string table
+ *  -The List / Map views plug into AdminAreaSnapshot, so reads work the same as on the heap snapshot
+ * */
+final class MappedAdminAreas {
+
+	private static final AdminLevel[] LEVELS = AdminLevel.values();
+
+	private final ByteBuffer buffer;
+	private final int count;
+	private final int childrenOffset;
+	private final int childrenCount;
+	private final int levelsOffset;
+	private final int[] levelStart;
+	private final int stringsOffset;
+
+	MappedAdminAreas(final ByteBuffer buffer, final int count, final int childrenOffset, final int childrenCount,
+			final int levelsOffset, final int[] levelStart, final int stringsOffset) {
+		this.buffer = buffer;
+		this.count = count;
+		this.childrenOffset = childrenOffset;
+		this.childrenCount = childrenCount;
+		this.levelsOffset = levelsOffset;
+		this.levelStart = levelStart;
+		this.stringsOffset = stringsOffset;
+	}
+
+	int size() {
+		return count;
+	}
+
+	private int field(final int record, final int offset) {
+		return buffer.getInt(AdminAreaSnapshotFile.HEADER_SIZE + record * AdminAreaSnapshotFile.RECORD_SIZE + offset);
+	}
+
+	private long longField(final int record, final int offset) {
+		return buffer.getLong(AdminAreaSnapshotFile.HEADER_SIZE + record * AdminAreaSnapshotFile.RECORD_SIZE + offset);
+	}
+
+	int code(final int record) {
+		return field(record, AdminAreaSnapshotFile.CODE);
+	}
+
+	private int parentCode(final int record) {
+		return field(record, AdminAreaSnapshotFile.PARENT_CODE);
+	}
+
+	/**
+	 * @return record index of the code, -1 when absent (or not a valid code)
+	 */
+	int indexOf(final Object code) {
+		final int packed = code instanceof String s ? AdminCode.parse(s) : AdminCode.INVALID;
+		if(!AdminCode.isValid(packed)) {
+			return -1;
+		}
+		int low = 0;
+		int high = count - 1;
+		while(low <= high) {
+			final int mid = (low + high) >>> 1;
+			final int cmp = compare(code(mid), packed);
+			if(cmp < 0) {
+				low = mid + 1;
+			}else if(cmp > 0) {
+				high = mid - 1;
+			}else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	AdminArea decode(final int record) {
+		final int code = code(record);
+		final int parentCode = parentCode(record);
+		final int level = field(record, AdminAreaSnapshotFile.LEVEL);
+
+		final List<String> path = new ArrayList<>(AdminCode.depth(code));
+		for(int depth = 1; depth <= AdminCode.depth(code); depth++) {
+			path.add(AdminCode.toString(AdminCode.prefix(code, depth)));
+		}
+
+		return AdminArea.builder()
+				.code(AdminCode.toString(code))
+				.level(level >= 0 ? LEVELS[level] : null)
+				.parentCode(AdminCode.isValid(parentCode) ? AdminCode.toString(parentCode) : null)
+				.nameKh(string(field(record, AdminAreaSnapshotFile.NAME_KH)))
+				.nameEn(string(field(record, AdminAreaSnapshotFile.NAME_EN)))
+				.path(path)
+				.createAt(instant(longField(record, AdminAreaSnapshotFile.CREATE_AT)))
+				.updateAt(instant(longField(record, AdminAreaSnapshotFile.UPDATE_AT)))
+				.version(nullable(longField(record, AdminAreaSnapshotFile.VERSION)))
+				.build();
+	}
+
+	private String string(final int offset) {
+		if(offset < 0) {
+			return null;
+		}
+		final int at = stringsOffset + offset;
+		final byte[] bytes = new byte[buffer.getInt(at)];
+		buffer.get(at + Integer.BYTES, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static Instant instant(final long millis) {
+		return millis == AdminAreaSnapshotFile.NULL_LONG ? null : Instant.ofEpochMilli(millis);
+	}
+
+	private static Long nullable(final long value) {
+		return value == AdminAreaSnapshotFile.NULL_LONG ? null : value;
+	}
+
+	private int child(final int i) {
+		return buffer.getInt(childrenOffset + i * Integer.BYTES);
+	}
+
+	// [from, to) of the children index for this parent code, the index is sorted by parent code then code
+	private int[] childRange(final int parentCode) {
+		int low = 0;
+		int high = childrenCount;
+		while(low < high) {
+			final int mid = (low + high) >>> 1;
+			if(compare(parentCode(child(mid)), parentCode) < 0) {
+				low = mid + 1;
+			}else {
+				high = mid;
+			}
+		}
+		int to = low;
+		while(to < childrenCount && parentCode(child(to)) == parentCode) {
+			to++;
+		}
+		return new int[] {low, to};
+	}
+
+	// packed codes in code string order ("12" < "1201" < "13"), the order of the records in the file
+	static int compare(final int a, final int b) {
+		if(a == b) {
+			return 0;
+		}
+		final int depthA = AdminCode.depth(a);
+		final int depthB = AdminCode.depth(b);
+		final int common = Math.min(depthA, depthB);
+		final int cmp = Integer.compare(AdminCode.prefix(a, common), AdminCode.prefix(b, common));
+		return cmp != 0 ? cmp : Integer.compare(depthA, depthB);
+	}
+
+	List<AdminArea> all() {
+		return new RecordList(count) {
+			@Override
+			int record(final int index) {
+				return index;
+			}
+		};
+	}
+
+	List<AdminArea> level(final AdminLevel level) {
+		final int from = levelStart[level.ordinal()];
+		final int to = levelStart[level.ordinal() + 1];
+		return new RecordList(to - from) {
+			@Override
+			int record(final int index) {
+				return buffer.getInt(levelsOffset + (from + index) * Integer.BYTES);
+			}
+		};
+	}
+
+	private List<AdminArea> children(final int from, final int to) {
+		return new RecordList(to - from) {
+			@Override
+			int record(final int index) {
+				return child(from + index);
+			}
+		};
+	}
+
+	Map<String, AdminArea> byCode() {
+		return new AbstractMap<>() {
+			@Override
+			public AdminArea get(final Object key) {
+				final int record = indexOf(key);
+				return record >= 0 ? decode(record) : null;
+			}
+
+			@Override
+			public boolean containsKey(final Object key) {
+				return indexOf(key) >= 0;
+			}
+
+			@Override
+			public int size() {
+				return count;
+			}
+
+			@Override
+			public Set<Entry<String, AdminArea>> entrySet() {
+				return new AbstractSet<>() {
+					@Override
+					public Iterator<Entry<String, AdminArea>> iterator() {
+						final Iterator<AdminArea> areas = all().iterator();
+						return new Iterator<>() {
+							@Override
+							public boolean hasNext() {
+								return areas.hasNext();
+							}
+
+							@Override
+							public Entry<String, AdminArea> next() {
+								final AdminArea area = areas.next();
+								return new SimpleImmutableEntry<>(area.getCode(), area);
+							}
+						};
+					}
+
+					@Override
+					public int size() {
+						return count;
+					}
+				};
+			}
+		};
+	}
+
+	Map<String, List<AdminArea>> byParent() {
+		return new AbstractMap<>() {
+			@Override
+			public List<AdminArea> get(final Object key) {
+				final int parentCode = key instanceof String s ? AdminCode.parse(s) : AdminCode.INVALID;
+				if(!AdminCode.isValid(parentCode)) {
+					return null;
+				}
+				final int[] range = childRange(parentCode);
+				return range[0] < range[1] ? children(range[0], range[1]) : null;
+			}
+
+			@Override
+			public boolean containsKey(final Object key) {
+				return get(key) != null;
+			}
+
+			// only walked when a write copies the snapshot onto the heap
+			@Override
+			public Set<Entry<String, List<AdminArea>>> entrySet() {
+				final List<Entry<String, List<AdminArea>>> entries = new ArrayList<>();
+				int from = 0;
+				while(from < childrenCount) {
+					final int parentCode = parentCode(child(from));
+					int to = from + 1;
+					while(to < childrenCount && parentCode(child(to)) == parentCode) {
+						to++;
+					}
+					entries.add(new SimpleImmutableEntry<>(AdminCode.toString(parentCode), children(from, to)));
+					from = to;
+				}
+				return new AbstractSet<>() {
+					@Override
+					public Iterator<Entry<String, List<AdminArea>>> iterator() {
+						return entries.iterator();
+					}
+
+					@Override
+					public int size() {
+						return entries.size();
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Sorted by code list of records, decoded on get.
+	 */
+	private abstract class RecordList extends AbstractList<AdminArea> implements RandomAccess {
+
+		private final int size;
+
+		RecordList(final int size) {
+			this.size = size;
+		}
+
+		abstract int record(int index);
+
+		@Override
+		public AdminArea get(final int index) {
+			if(index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException(index);
+			}
+			return decode(record(index));
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
@@ -6,6 +6,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsWebFilter;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
 
+import com.piseth.java.school.addressservice.controller.AdminAreaController;
+
 @Configuration
 public class CorsConfig {
 
@@ -13,6 +15,7 @@ public class CorsConfig {
 	CorsWebFilter corsWebFilter() {
 		CorsConfiguration config = new CorsConfiguration();
 		config.addAllowedOrigin("http://localhost:4200/");
+		config.addExposedHeader(AdminAreaController.NEXT_CURSOR_HEADER);
 		
 		UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
 		source.registerCorsConfiguration("/api/**", config);
@@ -0,0 +1,19 @@
+package com.piseth.java.school.addressservice.config;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import com.piseth.java.school.addressservice.domain.enumeration.ExportFormat;
+
+/**
+ *  Request parameter -> ExportFormat ignoring case, picked up by the WebFlux conversion service
+ *  (an unknown format still fails the binding with 400).
+ * */
+@Component
+public class ExportFormatConverter implements Converter<String, ExportFormat> {
+
+	@Override
+	public ExportFormat convert(final String source) {
+		return ExportFormat.from(source);
+	}
+}
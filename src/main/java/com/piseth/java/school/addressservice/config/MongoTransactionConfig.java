@@ -0,0 +1,20 @@
+package com.piseth.java.school.addressservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
+
+/**
+ *  Reactive transaction manager for the few multi document writes (cascade delete),
+ *  Boot also exposes a TransactionalOperator for it.
+ *  MongoDB transactions need a replica set or a sharded cluster, see MongoTransactions.
+ * */
+@Configuration
+public class MongoTransactionConfig {
+
+	@Bean
+	public ReactiveMongoTransactionManager reactiveMongoTransactionManager(final ReactiveMongoDatabaseFactory databaseFactory) {
+		return new ReactiveMongoTransactionManager(databaseFactory);
+	}
+}
@@ -0,0 +1,32 @@
+package com.piseth.java.school.addressservice.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ *  Adds RepositoryMetricsInterceptor to every Spring Data repository proxy (derived, @Query
+ *  and custom fragment methods alike), the same hook the built-in repository metrics use.
+ * */
+@Configuration
+public class RepositoryMetricsConfig {
+
+	@Bean
+	static BeanPostProcessor repositoryMetricsPostProcessor(final ObjectProvider<MeterRegistry> registry) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				if(bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+					factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+							(proxy, information) -> proxy.addAdvice(new RepositoryMetricsInterceptor(
+									registry, information.getRepositoryInterface().getSimpleName()))));
+				}
+				return bean;
+			}
+		};
+	}
+}
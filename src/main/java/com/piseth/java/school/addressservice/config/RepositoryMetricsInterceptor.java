@@ -0,0 +1,70 @@
+package com.piseth.java.school.addressservice.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ *  address.repository.invocations{repository, method, state}
+ *  -For Mono / Flux the time runs from subscription to completion / error / cancel,
+ *   not just the (instant) method call like the built-in Spring Data repository metrics
+ *  -Timers are cached per method + state, the hot path does a map lookup and a record
+ * */
+class RepositoryMetricsInterceptor implements MethodInterceptor{
+
+	private final ObjectProvider<MeterRegistry> registry;
+	private final String repository;
+	private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+	RepositoryMetricsInterceptor(final ObjectProvider<MeterRegistry> registry, final String repository) {
+		this.registry = registry;
+		this.repository = repository;
+	}
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		final MeterRegistry meterRegistry = registry.getIfAvailable();
+		if(meterRegistry == null) {
+			return invocation.proceed();
+		}
+
+		final String method = invocation.getMethod().getName();
+		final Object result = invocation.proceed();
+
+		if(result instanceof Flux<?> flux) {
+			return Flux.defer(() -> {
+				final Timer.Sample sample = Timer.start(meterRegistry);
+				return flux.doFinally(signal -> sample.stop(timer(meterRegistry, method, signal)));
+			});
+		}
+		if(result instanceof Mono<?> mono) {
+			return Mono.defer(() -> {
+				final Timer.Sample sample = Timer.start(meterRegistry);
+				return mono.doFinally(signal -> sample.stop(timer(meterRegistry, method, signal)));
+			});
+		}
+		return result;
+	}
+
+	private Timer timer(final MeterRegistry meterRegistry, final String method, final SignalType signal) {
+		final String state = switch (signal) {
+		case ON_COMPLETE -> "SUCCESS";
+		case ON_ERROR -> "ERROR";
+		default -> "CANCELED";
+		};
+		return timers.computeIfAbsent(method + "/" + state, key -> Timer.builder("address.repository.invocations")
+				.tag("repository", repository)
+				.tag("method", method)
+				.tag("state", state)
+				.register(meterRegistry));
+	}
+}
@@ -1,6 +1,9 @@
 package com.piseth.java.school.addressservice.controller;
 
+import java.util.List;
+
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,10 +16,15 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+import com.piseth.java.school.addressservice.dto.AdminAreaAncestors;
 import com.piseth.java.school.addressservice.dto.AdminAreaCreateRequest;
 import com.piseth.java.school.addressservice.dto.AdminAreaResponse;
 import com.piseth.java.school.addressservice.dto.AdminAreaSlimResponse;
 import com.piseth.java.school.addressservice.dto.AdminAreaUpdateRequest;
+import com.piseth.java.school.addressservice.dto.BatchGetRequest;
+import com.piseth.java.school.addressservice.dto.BatchGetResponse;
+import com.piseth.java.school.addressservice.dto.CascadeDeleteResult;
+import com.piseth.java.school.addressservice.dto.KeysetPage;
 import com.piseth.java.school.addressservice.service.AdminAreaService;
 
 import jakarta.validation.Valid;
@@ -29,6 +37,8 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class AdminAreaController {
 
+	public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
 	private final AdminAreaService service;
 	
 	@PostMapping
@@ -60,12 +70,86 @@ public class AdminAreaController {
 		return service.listSlim(level, parentCode);
 	}
 	
+	// opt-in keyset pagination : same body, the next page cursor is in X-Next-Cursor (absent on the last page)
+	@GetMapping(params = "limit")
+	public Mono<ResponseEntity<List<AdminAreaResponse>>> listPage(
+			@RequestParam(required = false) AdminLevel level,
+			@RequestParam(required = false) String parentCode,
+			@RequestParam int limit,
+			@RequestParam(required = false) String after
+			){
+		return service.listPage(level, parentCode, limit, after).map(this::toPageResponse);
+	}
+	
+	@GetMapping(value = "/slim", params = "limit")
+	public Mono<ResponseEntity<List<AdminAreaSlimResponse>>> listSlimPage(
+			@RequestParam(required = false) AdminLevel level,
+			@RequestParam(required = false) String parentCode,
+			@RequestParam int limit,
+			@RequestParam(required = false) String after
+			){
+		return service.listSlimPage(level, parentCode, limit, after).map(this::toPageResponse);
+	}
+	
+	private <T> ResponseEntity<List<T>> toPageResponse(final KeysetPage<T> page){
+		final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+		if(page.nextCursor() != null) {
+			response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+		}
+		return response.body(page.items());
+	}
+	
+	@PostMapping("/batch-get")
+	public Mono<BatchGetResponse<AdminAreaResponse>> batchGet(@Valid @RequestBody BatchGetRequest request){
+		return service.batchGet(request.getCodes());
+	}
+	
+	@PostMapping("/batch-get/slim")
+	public Mono<BatchGetResponse<AdminAreaSlimResponse>> batchGetSlim(@Valid @RequestBody BatchGetRequest request){
+		return service.batchGetSlim(request.getCodes());
+	}
+	
+	@GetMapping("/{code}/ancestors")
+	public Flux<AdminAreaResponse> ancestors(@PathVariable String code,
+			@RequestParam(defaultValue = "false") boolean includeSelf){
+		return service.ancestors(code, includeSelf);
+	}
+	
+	@PostMapping("/ancestors")
+	public Mono<BatchGetResponse<AdminAreaAncestors>> ancestorsBatch(@Valid @RequestBody BatchGetRequest request,
+			@RequestParam(defaultValue = "false") boolean includeSelf){
+		return service.ancestorsBatch(request.getCodes(), includeSelf);
+	}
+	
+	@GetMapping("/{code}/descendants")
+	public Flux<AdminAreaResponse> descendants(@PathVariable String code,
+			@RequestParam(required = false) Integer maxDepth,
+			@RequestParam(required = false) AdminLevel level
+			){
+		return service.descendants(code, maxDepth, level);
+	}
+	
+	@GetMapping("/{code}/descendants/slim")
+	public Flux<AdminAreaSlimResponse> descendantsSlim(@PathVariable String code,
+			@RequestParam(required = false) Integer maxDepth,
+			@RequestParam(required = false) AdminLevel level
+			){
+		return service.descendantsSlim(code, maxDepth, level);
+	}
+	
 	@DeleteMapping("/{code}")
 	@ResponseStatus(HttpStatus.NO_CONTENT)
 	public Mono<Void>  delete(@PathVariable String code){
 		return service.delete(code);
 	}
 	
+	// ?cascade=true : the code and everything below it, per level counts (dryRun=true : counts only)
+	@DeleteMapping(value = "/{code}", params = "cascade=true")
+	public Mono<CascadeDeleteResult> deleteCascade(@PathVariable String code,
+			@RequestParam(defaultValue = "false") boolean dryRun){
+		return service.deleteCascade(code, dryRun);
+	}
+	
 	@PutMapping("/{code}")
 	@ResponseStatus(HttpStatus.OK)
 	public Mono<AdminAreaResponse> update(@PathVariable String code, @Valid @RequestBody AdminAreaUpdateRequest request){
@@ -0,0 +1,32 @@
+package com.piseth.java.school.addressservice.controller;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.piseth.java.school.addressservice.domain.enumeration.ExportFormat;
+import com.piseth.java.school.addressservice.service.AdminAreaExportService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/admin-areas")
+@RequiredArgsConstructor
+public class AdminAreaExportController {
+
+	private final AdminAreaExportService adminAreaExportService;
+
+	@GetMapping("/export")
+	public ResponseEntity<Flux<DataBuffer>> export(@RequestParam(defaultValue = "ndjson") final ExportFormat format){
+		return ResponseEntity.ok()
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"admin-areas." + format.getExtension() + "\"")
+				.contentType(MediaType.parseMediaType(format.getContentType()))
+				.body(adminAreaExportService.export(format));
+	}
+}
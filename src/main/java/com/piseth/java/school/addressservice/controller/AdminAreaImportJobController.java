@@ -0,0 +1,66 @@
+package com.piseth.java.school.addressservice.controller;
+
+import java.util.Locale;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.piseth.java.school.addressservice.domain.enumeration.ImportJobStatus;
+import com.piseth.java.school.addressservice.domain.enumeration.ImportMode;
+import com.piseth.java.school.addressservice.dto.ImportOptions;
+import com.piseth.java.school.addressservice.dto.ImportJobResponse;
+import com.piseth.java.school.addressservice.dto.ImportProgress;
+import com.piseth.java.school.addressservice.dto.UploadSummary;
+import com.piseth.java.school.addressservice.service.ImportJobService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/admin-areas/imports")
+@RequiredArgsConstructor
+public class AdminAreaImportJobController {
+
+	private final ImportJobService importJobService;
+
+	@PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	@ResponseStatus(HttpStatus.ACCEPTED)
+	public Mono<ImportJobResponse> submit(@RequestPart("file") final FilePart file,
+			@RequestParam(defaultValue = "false") final boolean dryRun,
+			@RequestParam(defaultValue = "INSERT") final ImportMode mode,
+			@RequestParam(defaultValue = "false") final boolean reportOrphans){
+		return importJobService.submit(file, new ImportOptions(dryRun, mode, reportOrphans));
+	}
+
+	@GetMapping("/{jobId}")
+	public Mono<ImportJobResponse> get(@PathVariable String jobId){
+		return importJobService.get(jobId);
+	}
+
+	// event name : progress, then completed or failed
+	@GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public Flux<ServerSentEvent<ImportProgress>> events(@PathVariable String jobId){
+		return importJobService.events(jobId)
+				.map(progress -> ServerSentEvent.builder(progress)
+						.event(progress.getStatus() == ImportJobStatus.RUNNING
+								? "progress"
+								: progress.getStatus().name().toLowerCase(Locale.ROOT))
+						.build());
+	}
+
+	@GetMapping("/{jobId}/summary")
+	public Mono<UploadSummary> summary(@PathVariable String jobId){
+		return importJobService.summary(jobId);
+	}
+}
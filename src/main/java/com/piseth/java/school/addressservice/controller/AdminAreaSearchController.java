@@ -0,0 +1,44 @@
+package com.piseth.java.school.addressservice.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+import com.piseth.java.school.addressservice.dto.AddressResolution;
+import com.piseth.java.school.addressservice.dto.AddressResolveRequest;
+import com.piseth.java.school.addressservice.dto.AdminAreaSearchResult;
+import com.piseth.java.school.addressservice.service.AddressResolveService;
+import com.piseth.java.school.addressservice.service.AdminAreaSearchService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/admin-areas")
+@RequiredArgsConstructor
+public class AdminAreaSearchController {
+
+	private final AdminAreaSearchService searchService;
+	private final AddressResolveService resolveService;
+
+	@GetMapping("/search")
+	public Flux<AdminAreaSearchResult> search(
+			@RequestParam String q,
+			@RequestParam(required = false) AdminLevel level,
+			@RequestParam(required = false) String parentCode,
+			@RequestParam(required = false) Integer limit
+			){
+		return searchService.search(q, level, parentCode, limit);
+	}
+
+	// one result per address, same order as the request
+	@PostMapping("/resolve")
+	public Flux<AddressResolution> resolve(@Valid @RequestBody AddressResolveRequest request){
+		return resolveService.resolve(request.getAddresses(), request.getLimit());
+	}
+}
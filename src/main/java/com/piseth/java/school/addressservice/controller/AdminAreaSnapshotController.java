@@ -0,0 +1,31 @@
+package com.piseth.java.school.addressservice.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.piseth.java.school.addressservice.service.AdminAreaSnapshotService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/admin-areas")
+@RequiredArgsConstructor
+public class AdminAreaSnapshotController {
+
+	private final AdminAreaSnapshotService snapshotService;
+
+	// always gzip, the ETag / 304 handling is done by DatasetEtagFilter
+	@GetMapping("/snapshot")
+	public Mono<ResponseEntity<byte[]>> snapshot(){
+		return snapshotService.gzippedSlimTree()
+				.map(gzip -> ResponseEntity.ok()
+						.contentType(MediaType.APPLICATION_JSON)
+						.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+						.body(gzip));
+	}
+}
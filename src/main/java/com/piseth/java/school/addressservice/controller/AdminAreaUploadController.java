@@ -1,8 +1,13 @@
 package com.piseth.java.school.addressservice.controller;
 
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -10,6 +15,8 @@ import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.piseth.java.school.addressservice.domain.enumeration.ImportMode;
+import com.piseth.java.school.addressservice.dto.ImportOptions;
 import com.piseth.java.school.addressservice.dto.UploadSummary;
 import com.piseth.java.school.addressservice.service.AdminAreaImportService;
 
@@ -26,8 +33,19 @@ public class AdminAreaUploadController {
 	@PostMapping(value = "/upload-excel", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
 	@ResponseStatus(HttpStatus.OK)
 	public Mono<UploadSummary> uploadExcel(@RequestPart("file") final FilePart file,
-			@RequestParam(defaultValue = "false") final boolean dryRun){
+			@RequestParam(defaultValue = "false") final boolean dryRun,
+			@RequestParam(defaultValue = "INSERT") final ImportMode mode,
+			@RequestParam(defaultValue = "false") final boolean reportOrphans){
 		
-		return adminAreaImportService.importExcel(file, dryRun);
+		return adminAreaImportService.importExcel(file, new ImportOptions(dryRun, mode, reportOrphans));
+	}
+	
+	@GetMapping("/import-errors/{fileId}")
+	public Mono<ResponseEntity<Resource>> downloadErrors(@PathVariable String fileId){
+		return adminAreaImportService.errorFile(fileId)
+				.map(file -> ResponseEntity.ok()
+						.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-errors-" + fileId + ".ndjson\"")
+						.contentType(MediaType.APPLICATION_NDJSON)
+						.body(file));
 	}
 }
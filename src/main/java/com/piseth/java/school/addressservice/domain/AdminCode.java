@@ -0,0 +1,130 @@
+package com.piseth.java.school.addressservice.domain;
+
+/**
+ *  Admin area code packed into one int, so hot paths never need a regex or a substring.
+ *
+ *  -bits 28..30 : depth (1 = province .. 4 = village), bits 0..27 : the code as a number
+ *   (99999999 fits in 27 bits), ex: "1201" -> depth 2, value 1201
+ *  -Packed codes compare like BY_DEPTH : depth first, then the code (same length within a depth,
+ *   so numeric order = string order)
+ *  -INVALID (-1) for anything that is not 2, 4, 6 or 8 ASCII digits, no valid code is 0 or negative
+ *  -Every method is static and works on the int, nothing is allocated except by {@link #toString(int)}
+ * */
+public final class AdminCode {
+
+	public static final int INVALID = -1;
+	public static final int MAX_DEPTH = 4;
+
+	private static final int DEPTH_SHIFT = 28;
+	private static final int VALUE_MASK = (1 << DEPTH_SHIFT) - 1;
+	private static final int[] SCALE = {1, 100, 10_000, 1_000_000};
+
+	private AdminCode() {
+	}
+
+	/**
+	 * Strict parse, surrounding whitespace makes the code invalid (like the former CODE_PATTERN).
+	 */
+	public static int parse(final CharSequence code) {
+		if(code == null) {
+			return INVALID;
+		}
+		return parse(code, 0, code.length());
+	}
+
+	/**
+	 * Parse of {@code code.trim()}, without building the trimmed string.
+	 */
+	public static int parseTrimmed(final CharSequence code) {
+		if(code == null) {
+			return INVALID;
+		}
+		int from = 0;
+		int to = code.length();
+		while(from < to && code.charAt(from) <= ' ') {
+			from++;
+		}
+		while(to > from && code.charAt(to - 1) <= ' ') {
+			to--;
+		}
+		return parse(code, from, to);
+	}
+
+	private static int parse(final CharSequence code, final int from, final int to) {
+		final int length = to - from;
+		if(length < 2 || length > 2 * MAX_DEPTH || (length & 1) != 0) {
+			return INVALID;
+		}
+		int value = 0;
+		for(int i = from; i < to; i++) {
+			final char c = code.charAt(i);
+			if(c < '0' || c > '9') {
+				return INVALID;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return pack(length / 2, value);
+	}
+
+	public static boolean isValid(final int code) {
+		return code > 0;
+	}
+
+	/**
+	 * @return 1 (province) to 4 (village), 0 for INVALID
+	 */
+	public static int depth(final int code) {
+		return isValid(code) ? code >>> DEPTH_SHIFT : 0;
+	}
+
+	public static int value(final int code) {
+		return code & VALUE_MASK;
+	}
+
+	/**
+	 * @return the code of the direct parent, INVALID for a province (or INVALID)
+	 */
+	public static int parent(final int code) {
+		return prefix(code, depth(code) - 1);
+	}
+
+	/**
+	 * @return the leading {@code depth} levels of the code ("12030902", 2 -> "1203"),
+	 * INVALID when depth is not between 1 and the depth of the code
+	 */
+	public static int prefix(final int code, final int depth) {
+		final int own = depth(code);
+		if(depth < 1 || depth > own) {
+			return INVALID;
+		}
+		return pack(depth, value(code) / SCALE[own - depth]);
+	}
+
+	/**
+	 * Same as {@code code.startsWith(prefix)} on the strings : true for the code itself
+	 * and for every ancestor of it.
+	 */
+	public static boolean startsWith(final int code, final int prefix) {
+		return isValid(prefix) && prefix(code, depth(prefix)) == prefix;
+	}
+
+	/**
+	 * Zero padded, 2 digits per level ("1201", "01").
+	 */
+	public static String toString(final int code) {
+		if(!isValid(code)) {
+			throw new IllegalArgumentException("Invalid packed admin code: " + code);
+		}
+		final char[] digits = new char[2 * depth(code)];
+		int value = value(code);
+		for(int i = digits.length - 1; i >= 0; i--) {
+			digits[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+		return new String(digits);
+	}
+
+	private static int pack(final int depth, final int value) {
+		return (depth << DEPTH_SHIFT) | value;
+	}
+}
@@ -0,0 +1,30 @@
+package com.piseth.java.school.addressservice.domain.enumeration;
+
+import java.util.Locale;
+
+import lombok.Getter;
+
+@Getter
+public enum ExportFormat {
+
+	NDJSON("application/x-ndjson", "ndjson"),
+	CSV("text/csv;charset=UTF-8", "csv"),
+	XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+	private final String contentType;
+	private final String extension;
+
+	ExportFormat(final String contentType, final String extension) {
+		this.contentType = contentType;
+		this.extension = extension;
+	}
+
+	/**
+	 * Case-insensitive (?format=ndjson|csv|xlsx).
+	 *
+	 * @throws IllegalArgumentException for an unknown format
+	 */
+	public static ExportFormat from(final String value) {
+		return valueOf(value.trim().toUpperCase(Locale.ROOT));
+	}
+}
@@ -0,0 +1,8 @@
+package com.piseth.java.school.addressservice.domain.enumeration;
+
+public enum ImportJobStatus {
+
+	RUNNING,
+	COMPLETED,
+	FAILED
+}
@@ -0,0 +1,9 @@
+package com.piseth.java.school.addressservice.domain.enumeration;
+
+public enum ImportMode {
+
+	// new codes only, a stored code is a DUPLICATE
+	INSERT,
+	// new codes are inserted, stored codes are compared and written only when they changed
+	UPSERT
+}
@@ -0,0 +1,9 @@
+package com.piseth.java.school.addressservice.domain.enumeration;
+
+public enum ImportWriteMode {
+
+	// one repository insert per row, parent / duplicate checks from the prefetched codes
+	ROW,
+	// validated rows are written in chunks with unordered bulk inserts
+	BULK
+}
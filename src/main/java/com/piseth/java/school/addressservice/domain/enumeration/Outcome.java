@@ -3,8 +3,14 @@ package com.piseth.java.school.addressservice.domain.enumeration;
 public enum Outcome {
 
 	INSERTED,
+	// upsert mode : stored area written with the values of the row
+	UPDATED,
+	// upsert mode : the row matches the stored area, nothing written
+	UNCHANGED,
 	DUPLICATE,
 	VALIDATION,
 	PARENT_MISSING,
-	OTHER
+	OTHER,
+	// stored area missing from the file (reportOrphans), not a row of the file
+	ORPHANED
 }
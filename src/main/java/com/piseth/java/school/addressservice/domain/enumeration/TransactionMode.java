@@ -0,0 +1,11 @@
+package com.piseth.java.school.addressservice.domain.enumeration;
+
+public enum TransactionMode {
+
+	// a transaction when the deployment is a replica set or a sharded cluster
+	AUTO,
+	// always a transaction, fails on a standalone server
+	ALWAYS,
+	// never a transaction
+	NEVER
+}
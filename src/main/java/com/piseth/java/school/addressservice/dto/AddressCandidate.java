@@ -0,0 +1,23 @@
+package com.piseth.java.school.addressservice.dto;
+
+import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddressCandidate {
+
+	private String code;
+	private AdminLevel level;
+	private String nameKh;
+	private String nameEn;
+
+	// 0..1, share of the address segments matched along the parent chain
+	private double score;
+}
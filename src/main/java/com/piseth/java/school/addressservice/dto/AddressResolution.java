@@ -0,0 +1,20 @@
+package com.piseth.java.school.addressservice.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddressResolution {
+
+	private String address;
+
+	// best first, empty when nothing matched
+	private List<AddressCandidate> candidates;
+}
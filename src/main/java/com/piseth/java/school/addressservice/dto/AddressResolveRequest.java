@@ -0,0 +1,22 @@
+package com.piseth.java.school.addressservice.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddressResolveRequest {
+
+	@NotEmpty
+	private List<String> addresses;
+
+	// candidates per address, default 3
+	private Integer limit;
+}
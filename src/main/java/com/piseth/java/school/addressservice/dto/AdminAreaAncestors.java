@@ -0,0 +1,20 @@
+package com.piseth.java.school.addressservice.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminAreaAncestors {
+
+	private String code;
+
+	// province first, down to the parent (or the code itself when includeSelf)
+	private List<AdminAreaResponse> ancestors;
+}
@@ -0,0 +1,24 @@
+package com.piseth.java.school.addressservice.dto;
+
+import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminAreaSearchResult {
+
+	private String code;
+	private AdminLevel level;
+	private String parentCode;
+	private String nameKh;
+	private String nameEn;
+
+	// 3 = exact name, 2 = name prefix, 1 = word prefixes
+	private int score;
+}
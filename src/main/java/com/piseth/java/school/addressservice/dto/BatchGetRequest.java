@@ -0,0 +1,19 @@
+package com.piseth.java.school.addressservice.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetRequest {
+
+	@NotEmpty
+	private List<String> codes;
+}
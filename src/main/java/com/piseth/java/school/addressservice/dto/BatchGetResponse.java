@@ -0,0 +1,19 @@
+package com.piseth.java.school.addressservice.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// found and missing are both sorted by code, duplicates in the request are returned once
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetResponse<T> {
+
+	private List<T> found;
+	private List<String> missing;
+}
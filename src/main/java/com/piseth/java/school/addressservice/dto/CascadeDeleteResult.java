@@ -0,0 +1,24 @@
+package com.piseth.java.school.addressservice.dto;
+
+import java.util.Map;
+
+import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// deleted : level -> areas removed (or that would be removed, on a dry run), the code itself included
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CascadeDeleteResult {
+
+	private String code;
+	private boolean dryRun;
+	private boolean transactional;
+	private Map<AdminLevel, Long> deleted;
+	private long total;
+}
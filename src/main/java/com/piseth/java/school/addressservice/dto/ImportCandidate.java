@@ -0,0 +1,26 @@
+package com.piseth.java.school.addressservice.dto;
+
+import com.piseth.java.school.addressservice.domain.AdminArea;
+
+/**
+ * A parsed row after validation: either a valid entity ready to be written,
+ * or the RowResult it was rejected with.
+ */
+public record ImportCandidate(
+		ParsedRow row,
+		AdminArea entity,
+		RowResult rejected
+) {
+
+	public static ImportCandidate valid(final ParsedRow row, final AdminArea entity) {
+		return new ImportCandidate(row, entity, null);
+	}
+
+	public static ImportCandidate rejected(final ParsedRow row, final RowResult rejected) {
+		return new ImportCandidate(row, null, rejected);
+	}
+
+	public boolean isValid() {
+		return rejected == null;
+	}
+}
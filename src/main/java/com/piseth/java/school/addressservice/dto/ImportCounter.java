@@ -3,10 +3,13 @@ package com.piseth.java.school.addressservice.dto;
 public record ImportCounter(
 		 int totalRows,
 		 int inserted,
+		 int updated,
+		 int unchanged,
 		 int duplicates,
 		 int validationErrors,
 		 int parentMissing,
-		 int otherErrors
+		 int otherErrors,
+		 int orphaned
 		) {
 
 }
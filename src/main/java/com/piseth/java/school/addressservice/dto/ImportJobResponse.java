@@ -0,0 +1,29 @@
+package com.piseth.java.school.addressservice.dto;
+
+import java.time.Instant;
+
+import com.piseth.java.school.addressservice.domain.enumeration.ImportJobStatus;
+import com.piseth.java.school.addressservice.domain.enumeration.ImportMode;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobResponse {
+
+	private String jobId;
+	private ImportJobStatus status;
+	private boolean dryRun;
+	private ImportMode mode;
+	private Instant createdAt;
+	private Instant finishedAt;
+	private ImportCounter counter;
+	private String error;
+	private String eventsUrl;
+	private String summaryUrl;
+}
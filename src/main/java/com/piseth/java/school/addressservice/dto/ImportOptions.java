@@ -0,0 +1,19 @@
+package com.piseth.java.school.addressservice.dto;
+
+import com.piseth.java.school.addressservice.domain.enumeration.ImportMode;
+
+/**
+ * How one upload is imported.
+ *
+ * @param reportOrphans also report stored areas that no row of the file mentions (never deleted)
+ */
+public record ImportOptions(
+		boolean dryRun,
+		ImportMode mode,
+		boolean reportOrphans
+) {
+
+	public static ImportOptions of(final boolean dryRun) {
+		return new ImportOptions(dryRun, ImportMode.INSERT, false);
+	}
+}
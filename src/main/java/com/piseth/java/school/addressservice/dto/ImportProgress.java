@@ -0,0 +1,20 @@
+package com.piseth.java.school.addressservice.dto;
+
+import com.piseth.java.school.addressservice.domain.enumeration.ImportJobStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportProgress {
+
+	private String jobId;
+	private ImportJobStatus status;
+	private ImportCounter counter;
+	private String error;
+}
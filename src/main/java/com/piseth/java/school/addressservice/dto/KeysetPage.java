@@ -0,0 +1,8 @@
+package com.piseth.java.school.addressservice.dto;
+
+import java.util.List;
+
+// one page sorted by code, nextCursor is null on the last page
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+}
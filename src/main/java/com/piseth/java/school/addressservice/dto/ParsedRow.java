@@ -1,8 +1,8 @@
 package com.piseth.java.school.addressservice.dto;
 
 import java.util.Comparator;
-import java.util.regex.Pattern;
 
+import com.piseth.java.school.addressservice.domain.AdminCode;
 import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
 
 public record ParsedRow(
@@ -14,7 +14,6 @@ public record ParsedRow(
 		String nameEn
 
 ) {
-	private static final Pattern CODE_PATTERN = Pattern.compile("^\\d{2}(?:\\d{2}){0,3}$");
 	private String trimmedCode() {
 		if(code == null) {
 			return "";
@@ -22,17 +21,29 @@ public record ParsedRow(
 		return code.trim();
 	}
 	
+	// packed code of the trimmed code, Integer.MAX_VALUE (sorted last) when invalid
+	private int sortKey() {
+		final int packed = AdminCode.parseTrimmed(code);
+		return AdminCode.isValid(packed) ? packed : Integer.MAX_VALUE;
+	}
+	
 	public int depth() {
-		final String c = trimmedCode();
-		if(c.isEmpty() || !CODE_PATTERN.matcher(c).matches()) {
-			return Integer.MAX_VALUE;
-		}
-		return c.length() / 2;
+		final int packed = AdminCode.parseTrimmed(code);
+		return AdminCode.isValid(packed) ? AdminCode.depth(packed) : Integer.MAX_VALUE;
 	}
 	
-	public static final Comparator<ParsedRow> BY_DEPTH = 
-			Comparator.comparingInt(ParsedRow::depth)
-				.thenComparing(ParsedRow::trimmedCode)
-				.thenComparing(ParsedRow::lineNumber);
+	/*
+	 depth, then code, then line number, as before, but without a regex or a trimmed copy :
+	 packed codes already order by depth then code, only invalid codes (same key) compare as strings
+	 * */
+	public static final Comparator<ParsedRow> BY_DEPTH = (a, b) -> {
+		final int keyA = a.sortKey();
+		final int keyB = b.sortKey();
+		int cmp = Integer.compare(keyA, keyB);
+		if(cmp == 0 && keyA == Integer.MAX_VALUE) {
+			cmp = a.trimmedCode().compareTo(b.trimmedCode());
+		}
+		return cmp != 0 ? cmp : Integer.compare(a.lineNumber(), b.lineNumber());
+	};
 
 }
@@ -16,6 +16,14 @@ public final class RowResult {
 		return new RowResult(Outcome.INSERTED, null);
 	}
 	
+	public static RowResult updated() {
+		return new RowResult(Outcome.UPDATED, null);
+	}
+	
+	public static RowResult unchanged() {
+		return new RowResult(Outcome.UNCHANGED, null);
+	}
+	
 	public static RowResult error(final Outcome outcome, final RowError error) {
 		return new RowResult(outcome, error);
 	}
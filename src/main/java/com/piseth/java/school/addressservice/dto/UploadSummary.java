@@ -12,10 +12,20 @@ import lombok.NoArgsConstructor;
 public class UploadSummary {
 	private int totalRows;
 	private int inserted;
+	// upsert mode only
+	private int updated;
+	private int unchanged;
 	private int duplicates;
 	private int validationErrors;
 	private int parentMissing;
 	private int otherErrors;
+	// stored areas missing from the file (reportOrphans), listed in errors with line 0
+	private int orphaned;
 
+	// errors holds at most address.import.errors.inline-limit entries,
+	// the rest can be downloaded from errorFileUrl (null when nothing overflowed)
+	private int totalErrors;
 	private List<RowError> errors;
+	private String errorFileId;
+	private String errorFileUrl;
 }
@@ -0,0 +1,11 @@
+package com.piseth.java.school.addressservice.event;
+
+/**
+ * One change read from an AdminAreaChangeSource, with the token to resume after it.
+ */
+public record AdminAreaChange(
+		AdminAreaChangedEvent event,
+		String resumeToken
+) {
+
+}
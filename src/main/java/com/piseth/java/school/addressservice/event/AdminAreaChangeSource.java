@@ -0,0 +1,23 @@
+package com.piseth.java.school.addressservice.event;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Changes to the adminAreas collection made by any replica (this one included).
+ * Selected with address.change-stream.source : mongo (change stream) or local (tests).
+ */
+public interface AdminAreaChangeSource {
+
+	/**
+	 * @return false when the deployment cannot deliver changes (ex: standalone MongoDB)
+	 */
+	default Mono<Boolean> available() {
+		return Mono.just(Boolean.TRUE);
+	}
+
+	/**
+	 * @param resumeAfter token of the last change already applied, null = from now on
+	 */
+	Flux<AdminAreaChange> changes(String resumeAfter);
+}
@@ -0,0 +1,152 @@
+package com.piseth.java.school.addressservice.event;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoServerException;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+/**
+ *  Replays the changes of every replica as local AdminAreaChangedEvents, so the snapshot,
+ *  search index and dataset version of this node follow writes made anywhere.
+ *
+ *  -Changes are batched (max-batch or max-delay, whichever comes first) : the delay bounds
+ *   how stale another node can be, a batch larger than reload-threshold becomes one RELOADED
+ *   (a bulk import elsewhere must not patch the snapshot 100k times)
+ *  -Our own writes come back too, applying them again is idempotent
+ *  -The token of the last applied change is saved after each batch (on boundedElastic, never on
+ *   a driver thread) and used on restart / reconnect, when the server no longer has it
+ *   (ChangeStreamHistoryLost) or the saved token cannot be read (ResumeTokenLostException)
+ *   we reload and start from now
+ *  -A source that is not available (standalone MongoDB) is not listened to at all
+ * */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdminAreaChangeStreamListener {
+
+	private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+	private final ObjectProvider<AdminAreaChangeSource> source;
+	private final ResumeTokenStore tokenStore;
+	private final ApplicationEventPublisher eventPublisher;
+
+	@Value("${address.change-stream.max-batch:500}")
+	private int maxBatch;
+
+	@Value("${address.change-stream.max-delay:200ms}")
+	private Duration maxDelay;
+
+	@Value("${address.change-stream.reload-threshold:100}")
+	private int reloadThreshold;
+
+	private volatile String lastToken;
+	private volatile Disposable subscription;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		final AdminAreaChangeSource changeSource = source.getIfAvailable();
+		if(changeSource == null) {
+			log.info("AdminArea change stream disabled, caches only follow writes of this node");
+			return;
+		}
+		subscription = changeSource.available()
+				.onErrorResume(ex -> {
+					log.warn("Could not tell whether MongoDB supports change streams: {}", ex.getMessage());
+					return Mono.just(Boolean.FALSE);
+				})
+				.subscribe(available -> {
+					if(available) {
+						start(changeSource);
+					}else {
+						log.warn("AdminArea change stream not available (standalone MongoDB?), caches only follow writes of this node");
+					}
+				});
+	}
+
+	private void start(final AdminAreaChangeSource changeSource) {
+		lastToken = tokenStore.load();
+		subscription = Flux.defer(() -> changeSource.changes(lastToken))
+				.bufferTimeout(maxBatch, maxDelay)
+				.doOnNext(this::apply)
+				.concatMap(this::saveToken)
+				.doOnError(this::onStreamError)
+				.retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+				.subscribe();
+		log.info("AdminArea change stream started {}", lastToken != null ? "from saved token" : "from now");
+	}
+
+	@PreDestroy
+	public void stop() {
+		final Disposable current = subscription;
+		if(current != null) {
+			current.dispose();
+		}
+	}
+
+	private void apply(final List<AdminAreaChange> batch) {
+		if(batch.isEmpty()) {
+			return;
+		}
+		if(batch.size() >= reloadThreshold) {
+			eventPublisher.publishEvent(AdminAreaChangedEvent.reloaded());
+		}else {
+			batch.forEach(change -> eventPublisher.publishEvent(change.event()));
+		}
+
+		final String token = batch.get(batch.size() - 1).resumeToken();
+		if(token != null) {
+			lastToken = token;
+		}
+	}
+
+	// file write off the driver thread, batches stay in order (concatMap)
+	private Mono<Void> saveToken(final List<AdminAreaChange> batch) {
+		final String token = batch.isEmpty() ? null : batch.get(batch.size() - 1).resumeToken();
+		if(token == null) {
+			return Mono.empty();
+		}
+		return Mono.<Void>fromRunnable(() -> tokenStore.save(token))
+				.subscribeOn(Schedulers.boundedElastic());
+	}
+
+	private void onStreamError(final Throwable ex) {
+		if(isHistoryLost(ex)) {
+			log.warn("AdminArea change stream cannot resume from the saved token, reloading and starting from now");
+			lastToken = null;
+			tokenStore.clear();
+			eventPublisher.publishEvent(AdminAreaChangedEvent.reloaded());
+			return;
+		}
+		log.warn("AdminArea change stream failed, retrying: {}", ex.getMessage());
+	}
+
+	private static boolean isHistoryLost(final Throwable ex) {
+		Throwable t = ex;
+		while(t != null) {
+			if(t instanceof MongoServerException server && server.getCode() == CHANGE_STREAM_HISTORY_LOST) {
+				return true;
+			}
+			if(t instanceof ResumeTokenLostException) {
+				return true;
+			}
+			t = t.getCause();
+		}
+		return false;
+	}
+}
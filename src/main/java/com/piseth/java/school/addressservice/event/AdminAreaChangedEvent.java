@@ -0,0 +1,34 @@
+package com.piseth.java.school.addressservice.event;
+
+import com.piseth.java.school.addressservice.domain.AdminArea;
+
+/**
+ * Published (synchronously) after a write to the adminAreas collection so
+ * in-process read models can stay consistent with it.
+ *
+ *  - UPSERTED : one area was created or updated, {@code area} holds the saved state
+ *  - DELETED  : one area was removed, only {@code code} is set
+ *  - RELOADED : many areas changed at once (ex: import), listeners should reload
+ */
+public record AdminAreaChangedEvent(
+		Type type,
+		String code,
+		AdminArea area
+) {
+
+	public enum Type {
+		UPSERTED, DELETED, RELOADED
+	}
+
+	public static AdminAreaChangedEvent upserted(final AdminArea area) {
+		return new AdminAreaChangedEvent(Type.UPSERTED, area.getCode(), area);
+	}
+
+	public static AdminAreaChangedEvent deleted(final String code) {
+		return new AdminAreaChangedEvent(Type.DELETED, code, null);
+	}
+
+	public static AdminAreaChangedEvent reloaded() {
+		return new AdminAreaChangedEvent(Type.RELOADED, null, null);
+	}
+}
@@ -0,0 +1,32 @@
+package com.piseth.java.school.addressservice.event;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ *  Stand-in for the change stream (tests, single node without a replica set) :
+ *  only what is passed to emit() comes out, tokens are a plain counter
+ *  and resumeAfter is ignored.
+ * */
+@Component
+@ConditionalOnProperty(name = "address.change-stream.source", havingValue = "local")
+public class LocalAdminAreaChangeSource implements AdminAreaChangeSource{
+
+	private final Sinks.Many<AdminAreaChange> sink = Sinks.many().multicast().directBestEffort();
+	private final AtomicLong sequence = new AtomicLong();
+
+	public void emit(final AdminAreaChangedEvent event) {
+		sink.emitNext(new AdminAreaChange(event, Long.toString(sequence.incrementAndGet())), Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+	}
+
+	@Override
+	public Flux<AdminAreaChange> changes(String resumeAfter) {
+		return sink.asFlux();
+	}
+}
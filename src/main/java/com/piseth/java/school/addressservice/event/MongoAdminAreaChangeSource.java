@@ -0,0 +1,76 @@
+package com.piseth.java.school.addressservice.event;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.piseth.java.school.addressservice.domain.AdminArea;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ *  -MongoDB change stream on adminAreas (needs a replica set or mongos, asked once with hello)
+ *  -insert / update / replace => UPSERTED with the full document (updateLookup)
+ *  -delete => DELETED, anything else (drop, rename, invalidate) => RELOADED
+ *  -the resume token is kept as its extended JSON
+ * */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "address.change-stream.source", havingValue = "mongo")
+public class MongoAdminAreaChangeSource implements AdminAreaChangeSource{
+
+	private final ReactiveMongoOperations mongoOperations;
+
+	@Override
+	public Mono<Boolean> available() {
+		return mongoOperations.executeCommand(new Document("hello", 1))
+				.map(hello -> hello.get("setName") != null || "isdbgrid".equals(hello.get("msg")));
+	}
+
+	@Override
+	public Flux<AdminAreaChange> changes(String resumeAfter) {
+		final BsonDocument token;
+		try {
+			token = resumeAfter != null ? BsonDocument.parse(resumeAfter) : null;
+		} catch (RuntimeException ex) {
+			// ex: the counter token of LocalAdminAreaChangeSource, the stream cannot resume from it
+			return Flux.error(new ResumeTokenLostException("Unreadable resume token: " + resumeAfter, ex));
+		}
+		return mongoOperations.changeStream(AdminArea.class)
+				.withOptions(options -> {
+					options.fullDocumentLookup(FullDocument.UPDATE_LOOKUP);
+					if(token != null) {
+						options.resumeAfter(token);
+					}
+				})
+				.watchCollection(AdminArea.class)
+				.listen()
+				.map(change -> new AdminAreaChange(toEvent(change), token(change.getResumeToken())));
+	}
+
+	private AdminAreaChangedEvent toEvent(final ChangeStreamEvent<AdminArea> change) {
+		final OperationType type = change.getOperationType();
+		if(type == null) {
+			return AdminAreaChangedEvent.reloaded();
+		}
+		return switch (type) {
+		case INSERT, UPDATE, REPLACE -> change.getBody() != null
+				? AdminAreaChangedEvent.upserted(change.getBody())
+				: AdminAreaChangedEvent.reloaded();
+		case DELETE -> AdminAreaChangedEvent.deleted(change.getRaw().getDocumentKey().getString("_id").getValue());
+		default -> AdminAreaChangedEvent.reloaded();
+		};
+	}
+
+	private static String token(final BsonValue token) {
+		return token != null && token.isDocument() ? token.asDocument().toJson() : null;
+	}
+}
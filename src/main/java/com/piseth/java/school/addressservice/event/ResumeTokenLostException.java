@@ -0,0 +1,14 @@
+package com.piseth.java.school.addressservice.event;
+
+/**
+ * The saved resume token cannot be used (ex: not a change stream token), handled like
+ * ChangeStreamHistoryLost : the listener reloads and starts from now.
+ */
+public class ResumeTokenLostException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public ResumeTokenLostException(final String message, final Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,61 @@
+package com.piseth.java.school.addressservice.event;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *  Last applied change stream token of this node, kept in a local file so a restart
+ *  resumes where the previous run stopped. Written to a temp file then moved, so a
+ *  crash never leaves half a token.
+ * */
+@Slf4j
+@Component
+public class ResumeTokenStore {
+
+	private final Path file;
+
+	public ResumeTokenStore(@Value("${address.change-stream.resume-token-file:./data/admin-areas.resume-token}") final String file) {
+		this.file = Path.of(file);
+	}
+
+	public String load() {
+		try {
+			if(!Files.exists(file)) {
+				return null;
+			}
+			final String token = Files.readString(file, StandardCharsets.UTF_8).trim();
+			return token.isEmpty() ? null : token;
+		} catch (IOException ex) {
+			log.warn("Could not read resume token {}, starting from now", file, ex);
+			return null;
+		}
+	}
+
+	public void save(final String token) {
+		try {
+			final Path dir = file.toAbsolutePath().getParent();
+			Files.createDirectories(dir);
+			final Path tmp = Files.createTempFile(dir, "resume-token-", ".tmp");
+			Files.writeString(tmp, token, StandardCharsets.UTF_8);
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException ex) {
+			log.warn("Could not save resume token {}", file, ex);
+		}
+	}
+
+	public void clear() {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException ex) {
+			log.warn("Could not delete resume token {}", file, ex);
+		}
+	}
+}
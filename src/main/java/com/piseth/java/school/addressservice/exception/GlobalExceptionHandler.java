@@ -4,6 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.server.ResponseStatusException;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -18,4 +19,9 @@ public class GlobalExceptionHandler {
 		return problemDetail;
 	}
 	
+	@ExceptionHandler(ResponseStatusException.class)
+	public ProblemDetail handlerResponseStatusException(ResponseStatusException ex) {
+		return ProblemDetail.forStatusAndDetail(ex.getStatusCode(), ex.getReason());
+	}
+	
 }
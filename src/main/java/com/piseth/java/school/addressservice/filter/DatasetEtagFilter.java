@@ -0,0 +1,66 @@
+package com.piseth.java.school.addressservice.filter;
+
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.piseth.java.school.addressservice.cache.DatasetVersion;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ *  -Every GET / HEAD read of /api/admin-areas gets the DatasetVersion as a strong ETag
+ *  -If-None-Match with the current version => 304, the handler is not called at all
+ *  -Import job / error file endpoints are not dataset reads and are left alone
+ *  -The ETag is dropped again from non 2xx responses
+ * */
+@Component
+@RequiredArgsConstructor
+public class DatasetEtagFilter implements WebFilter{
+
+	private static final String PREFIX = "/api/admin-areas";
+	private static final List<String> EXCLUDED = List.of(PREFIX + "/imports", PREFIX + "/import-errors");
+
+	private final DatasetVersion datasetVersion;
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		if(!isDatasetRead(exchange)) {
+			return chain.filter(exchange);
+		}
+
+		if(exchange.checkNotModified(datasetVersion.etag())) {
+			return exchange.getResponse().setComplete();
+		}
+
+		final ServerHttpResponse response = exchange.getResponse();
+		response.beforeCommit(() -> {
+			final HttpStatusCode status = response.getStatusCode();
+			if(status != null && !status.is2xxSuccessful()) {
+				response.getHeaders().remove(HttpHeaders.ETAG);
+			}
+			return Mono.empty();
+		});
+		return chain.filter(exchange);
+	}
+
+	private boolean isDatasetRead(final ServerWebExchange exchange) {
+		final HttpMethod method = exchange.getRequest().getMethod();
+		if(method != HttpMethod.GET && method != HttpMethod.HEAD) {
+			return false;
+		}
+		final String path = exchange.getRequest().getPath().pathWithinApplication().value();
+		if(!path.equals(PREFIX) && !path.startsWith(PREFIX + "/")) {
+			return false;
+		}
+		return EXCLUDED.stream().noneMatch(path::startsWith);
+	}
+}
@@ -1,6 +1,5 @@
 package com.piseth.java.school.addressservice.mapper;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.mapstruct.Mapper;
@@ -11,8 +10,11 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
 import org.mapstruct.ReportingPolicy;
 
 import com.piseth.java.school.addressservice.domain.AdminArea;
+import com.piseth.java.school.addressservice.domain.AdminCode;
+import com.piseth.java.school.addressservice.dto.AddressCandidate;
 import com.piseth.java.school.addressservice.dto.AdminAreaCreateRequest;
 import com.piseth.java.school.addressservice.dto.AdminAreaResponse;
+import com.piseth.java.school.addressservice.dto.AdminAreaSearchResult;
 import com.piseth.java.school.addressservice.dto.AdminAreaSlimResponse;
 import com.piseth.java.school.addressservice.dto.AdminAreaUpdateRequest;
 
@@ -42,24 +44,33 @@ public interface AdminAreaMapper {
 		}
 		
 		final String trimmed = code.trim();
-		final int len = trimmed.length();
+		final int depth = AdminCode.depth(AdminCode.parse(trimmed));
 		
-		if((len%2 != 0) || len > 8) {
+		// not 2 to 8 digits : the code alone, the validator rejects it anyway
+		if(depth == 0) {
 			return List.of(trimmed);
 		}
 		
-		List<String> path = new ArrayList<>(len / 2);
-		for(int i = 2; i <= len; i += 2) {
-			path.add(trimmed.substring(0, i));
+		final String[] path = new String[depth];
+		for(int i = 1; i < depth; i++) {
+			path[i - 1] = trimmed.substring(0, 2 * i);
 		}
+		path[depth - 1] = trimmed;
 		
-		return path;
+		return List.of(path);
 	}
 	
 	AdminAreaResponse toResponse(AdminArea entity);
 	
 	AdminAreaSlimResponse toSlimResponse(AdminArea entity);
 	
+	AdminAreaSearchResult toSearchResult(AdminArea entity, int score);
+	
+	AddressCandidate toAddressCandidate(AdminArea entity, double score);
+	
+	// the upload columns, used by the export so files round-trip through the import
+	AdminAreaCreateRequest toCreateRequest(AdminArea entity);
+	
 	void update(@MappingTarget AdminArea target, AdminAreaUpdateRequest dto);
 
 }
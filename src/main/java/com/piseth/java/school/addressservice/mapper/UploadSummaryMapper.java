@@ -1,11 +1,20 @@
 package com.piseth.java.school.addressservice.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 import com.piseth.java.school.addressservice.dto.UploadSummary;
 import com.piseth.java.school.addressservice.service.helper.ImportAccumulator;
 
 @Mapper(componentModel = "spring")
 public interface UploadSummaryMapper {
+	
+	String ERROR_FILE_URL = "/api/admin-areas/import-errors/";
+	
+	@Mapping(target = "errorFileUrl", expression = "java(errorFileUrl(accumulator.getErrorFileId()))")
 	UploadSummary toUploadSummary(ImportAccumulator accumulator);
+	
+	default String errorFileUrl(String errorFileId) {
+		return errorFileId == null ? null : ERROR_FILE_URL + errorFileId;
+	}
 }
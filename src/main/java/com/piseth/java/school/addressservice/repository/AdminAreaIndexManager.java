@@ -0,0 +1,170 @@
+package com.piseth.java.school.addressservice.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.reactivestreams.client.FindPublisher;
+import com.piseth.java.school.addressservice.domain.AdminArea;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ *  -Declares one index per AdminAreaRepsitory query shape and ensures them at startup
+ *   (createIndex is a no-op when the index already exists)
+ *  -The slim indexes hold every field of the slim projection, so findSlim* are covered queries
+ *  -Then explains each query shape and warns when the winning plan is a COLLSCAN
+ *  -code is the @Id, so it is "_id" in every key / filter / sort below
+ * */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdminAreaIndexManager {
+
+	private static final Document SLIM_FIELDS = new Document("_id", 1).append("level", 1).append("parentCode", 1).append("nameEn", 1);
+	private static final Document BY_CODE = new Document("_id", 1);
+
+	private final ReactiveMongoOperations mongoOperations;
+
+	@Value("${address.mongo.indexes.ensure:true}")
+	private boolean ensure;
+
+	@Value("${address.mongo.indexes.explain-check:true}")
+	private boolean explainCheck;
+
+	/**
+	 * Keys follow equality, sort, then the remaining projected fields.
+	 */
+	static List<IndexDefinition> indexes(){
+		return List.of(
+				// findByLevel / findSlimByLevel, sorted by code
+				index("level_code", new Document("level", 1).append("_id", 1).append("parentCode", 1).append("nameEn", 1)),
+				// findByParentCode / findSlimByParentCode / existsByParentCode
+				index("parentCode_code", new Document("parentCode", 1).append("_id", 1).append("level", 1).append("nameEn", 1)),
+				// findByLevelAndParentCode / findSlimByLevelAndParentCode
+				index("parentCode_level_code", new Document("parentCode", 1).append("level", 1).append("_id", 1).append("nameEn", 1)),
+				// findSlimAll
+				index("code_slim", new Document("_id", 1).append("level", 1).append("parentCode", 1).append("nameEn", 1)),
+				// findDescendants / findSlimDescendants / findSubtreeLevels / deleteSubtree (path is multikey, so never covered)
+				index("path_code", new Document("path", 1).append("_id", 1)));
+	}
+
+	private static IndexDefinition index(final String name, final Document keys) {
+		return new CompoundIndexDefinition(keys).named(name);
+	}
+
+	/**
+	 * Every repository query shape with sample values, name -> find / projection / sort.
+	 */
+	static List<QueryShape> queryShapes(){
+		final List<QueryShape> shapes = new ArrayList<>();
+		shapes.add(new QueryShape("findByLevel", new Document("level", "DISTRICT"), null, BY_CODE));
+		shapes.add(new QueryShape("findSlimByLevel", new Document("level", "DISTRICT"), SLIM_FIELDS, BY_CODE));
+		shapes.add(new QueryShape("findByParentCode", new Document("parentCode", "12"), null, BY_CODE));
+		shapes.add(new QueryShape("findSlimByParentCode", new Document("parentCode", "12"), SLIM_FIELDS, BY_CODE));
+		shapes.add(new QueryShape("findByLevelAndParentCode", new Document("level", "DISTRICT").append("parentCode", "12"), null, BY_CODE));
+		shapes.add(new QueryShape("findSlimByLevelAndParentCode", new Document("level", "DISTRICT").append("parentCode", "12"), SLIM_FIELDS, BY_CODE));
+		shapes.add(new QueryShape("findSlimAll", new Document(), SLIM_FIELDS, BY_CODE));
+		shapes.add(new QueryShape("findByCodeIn", new Document("_id", new Document("$in", List.of("12", "1201"))), null, BY_CODE));
+		shapes.add(new QueryShape("findDescendants", new Document("path", "12")
+				.append("_id", new Document("$ne", "12"))
+				.append("level", new Document("$in", List.of("DISTRICT", "COMMUNE"))), null, BY_CODE));
+		shapes.add(new QueryShape("findSubtreeLevels", new Document("path", "12"), new Document("_id", 1).append("level", 1), null));
+		shapes.add(new QueryShape("findAllCodes", new Document(), new Document("_id", 1), null, "_id_"));
+		return shapes;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		ensureIndexes()
+			.then(explainQueries())
+			.subscribe(
+				plans -> log.debug("AdminArea index check done: {} query shapes", plans.size()),
+				ex -> log.warn("AdminArea index check failed", ex));
+	}
+
+	public Flux<String> ensureIndexes(){
+		if(!ensure) {
+			return Flux.empty();
+		}
+		return Flux.fromIterable(indexes())
+				.concatMap(index -> mongoOperations.indexOps(AdminArea.class).createIndex(index))
+				.doOnNext(name -> log.debug("AdminArea index ensured: {}", name));
+	}
+
+	/**
+	 * @return query shape name -> stages of the winning plan, COLLSCAN shapes are also logged as warnings
+	 */
+	public Mono<Map<String, List<String>>> explainQueries(){
+		if(!explainCheck) {
+			return Mono.just(Map.of());
+		}
+		return Flux.fromIterable(queryShapes())
+				.concatMap(shape -> explain(shape)
+						.map(plan -> Map.entry(shape.name(), stages(plan))))
+				.doOnNext(entry -> {
+					if(entry.getValue().contains("COLLSCAN")) {
+						log.warn("AdminArea query {} uses a collection scan: {}", entry.getKey(), entry.getValue());
+					}else {
+						log.info("AdminArea query {} plan: {}", entry.getKey(), entry.getValue());
+					}
+				})
+				.collectMap(Map.Entry::getKey, Map.Entry::getValue);
+	}
+
+	private Mono<Document> explain(final QueryShape shape){
+		return mongoOperations.execute(AdminArea.class, collection -> {
+			FindPublisher<Document> find = collection.find(shape.filter());
+			if(shape.projection() != null) {
+				find = find.projection(shape.projection());
+			}
+			if(shape.sort() != null) {
+				find = find.sort(shape.sort());
+			}
+			if(shape.hint() != null) {
+				find = find.hintString(shape.hint());
+			}
+			return find.explain(Document.class);
+		}).next();
+	}
+
+	// depth first list of the "stage" values of queryPlanner.winningPlan (classic and SBE layouts)
+	private static List<String> stages(final Document explain) {
+		final List<String> stages = new ArrayList<>();
+		final Object planner = explain.get("queryPlanner");
+		if(planner instanceof Document doc) {
+			collectStages(doc.get("winningPlan"), stages);
+		}
+		return stages;
+	}
+
+	private static void collectStages(final Object node, final List<String> stages) {
+		if(node instanceof Document doc) {
+			if(doc.get("stage") instanceof String stage) {
+				stages.add(stage);
+			}
+			doc.values().forEach(value -> collectStages(value, stages));
+		}else if(node instanceof List<?> list) {
+			list.forEach(value -> collectStages(value, stages));
+		}
+	}
+
+	record QueryShape(String name, Document filter, Document projection, Document sort, String hint) {
+
+		QueryShape(final String name, final Document filter, final Document projection, final Document sort) {
+			this(name, filter, projection, sort, null);
+		}
+	}
+}
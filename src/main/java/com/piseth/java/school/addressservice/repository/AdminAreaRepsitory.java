@@ -1,6 +1,9 @@
 package com.piseth.java.school.addressservice.repository;
 
+import java.util.Collection;
+
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.Hint;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 
@@ -10,7 +13,7 @@ import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-public interface AdminAreaRepsitory extends ReactiveMongoRepository<AdminArea, String>{
+public interface AdminAreaRepsitory extends ReactiveMongoRepository<AdminArea, String>, AdminAreaRepsitoryCustom{
 	
 	Flux<AdminArea> findByLevel(AdminLevel level, Sort sort);
 	
@@ -37,4 +40,30 @@ public interface AdminAreaRepsitory extends ReactiveMongoRepository<AdminArea, S
 	@Query(value = "{}", 
 			fields = "{'code':1, 'level':1, 'parentCode':1,'nameEn':1}")
 	Flux<AdminArea> findSlimAll(Sort sort);
+	
+	// batch lookup, one $in on _id per chunk
+	Flux<AdminArea> findByCodeIn(Collection<String> codes, Sort sort);
+	
+	@Query(value = "{'_id': {$in: ?0}}", 
+			fields = "{'code':1, 'level':1, 'parentCode':1,'nameEn':1}")
+	Flux<AdminArea> findSlimByCodeIn(Collection<String> codes, Sort sort);
+	
+	// subtree : every area whose materialized path contains the code, except the code itself
+	@Query(value = "{'path': ?0, '_id': {$ne: ?0}, 'level': {$in: ?1}}")
+	Flux<AdminArea> findDescendants(String code, Collection<AdminLevel> levels, Sort sort);
+	
+	@Query(value = "{'path': ?0, '_id': {$ne: ?0}, 'level': {$in: ?1}}", 
+			fields = "{'code':1, 'level':1, 'parentCode':1,'nameEn':1}")
+	Flux<AdminArea> findSlimDescendants(String code, Collection<AdminLevel> levels, Sort sort);
+	
+	// the code and every area below it (cascade delete), level only
+	@Query(value = "{'path': ?0}", 
+			fields = "{'code':1, 'level':1}")
+	Flux<AdminArea> findSubtreeLevels(String code);
+	
+	// code only, prefetched once per import, the hint makes it a covered _id index scan
+	@Hint("_id_")
+	@Query(value = "{}", 
+			fields = "{'code':1}")
+	Flux<AdminArea> findAllCodes();
 }
@@ -0,0 +1,49 @@
+package com.piseth.java.school.addressservice.repository;
+
+import java.util.List;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.piseth.java.school.addressservice.domain.AdminArea;
+import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Operations that Spring Data derived / @Query methods cannot express,
+ * implemented with ReactiveMongoTemplate in AdminAreaRepsitoryCustomImpl.
+ */
+public interface AdminAreaRepsitoryCustom {
+
+	/**
+	 * Inserts all areas in one unordered bulk write. Rows that fail (ex: duplicate
+	 * key) do not stop the others.
+	 *
+	 * @return the per-row write errors, {@link BulkWriteError#getIndex()} is the
+	 *         position in {@code areas}; empty when every row was inserted
+	 */
+	Mono<List<BulkWriteError>> insertAllUnordered(List<AdminArea> areas);
+
+	/**
+	 * Writes level, parentCode, names, path and updateAt of stored areas in one unordered
+	 * bulk of updateOne by code (version is incremented, createAt is kept).
+	 *
+	 * @return the per-row write errors, same indexing as {@link #insertAllUnordered(List)}
+	 */
+	Mono<List<BulkWriteError>> updateAllUnordered(List<AdminArea> areas);
+
+	/**
+	 * One keyset page sorted by code : {@code code > afterCode}, at most {@code limit} rows.
+	 * A null level, a blank parentCode or a null afterCode means no filter on that field.
+	 *
+	 * @param slim only the AdminAreaSlimResponse fields
+	 */
+	Flux<AdminArea> findPage(AdminLevel level, String parentCode, String afterCode, int limit, boolean slim);
+
+	/**
+	 * Removes the code and every area below it with one deleteMany on the materialized path.
+	 *
+	 * @return the number of removed documents
+	 */
+	Mono<Long> deleteSubtree(String code);
+}
@@ -0,0 +1,105 @@
+package com.piseth.java.school.addressservice.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.util.StringUtils;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.result.DeleteResult;
+import com.piseth.java.school.addressservice.domain.AdminArea;
+import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class AdminAreaRepsitoryCustomImpl implements AdminAreaRepsitoryCustom{
+
+	private final ReactiveMongoOperations mongoOperations;
+
+	@Override
+	public Mono<List<BulkWriteError>> insertAllUnordered(List<AdminArea> areas) {
+		if(areas.isEmpty()) {
+			return Mono.just(List.of());
+		}
+		return mongoOperations.bulkOps(BulkMode.UNORDERED, AdminArea.class)
+				.insert(areas)
+				.execute()
+				.map(result -> List.<BulkWriteError>of())
+				.onErrorResume(ex -> writeErrors(ex) != null, ex -> Mono.just(writeErrors(ex)));
+	}
+
+	// no $set of the whole document : a row of the file never carries createAt
+	@Override
+	public Mono<List<BulkWriteError>> updateAllUnordered(List<AdminArea> areas) {
+		if(areas.isEmpty()) {
+			return Mono.just(List.of());
+		}
+		final ReactiveBulkOperations bulk = mongoOperations.bulkOps(BulkMode.UNORDERED, AdminArea.class);
+		for(AdminArea area : areas) {
+			bulk.updateOne(Query.query(Criteria.where("code").is(area.getCode())), new Update()
+					.set("level", area.getLevel())
+					.set("parentCode", area.getParentCode())
+					.set("nameKh", area.getNameKh())
+					.set("nameEn", area.getNameEn())
+					.set("path", area.getPath())
+					.set("updateAt", area.getUpdateAt())
+					.inc("version", 1));
+		}
+		return bulk.execute()
+				.map(result -> List.<BulkWriteError>of())
+				.onErrorResume(ex -> writeErrors(ex) != null, ex -> Mono.just(writeErrors(ex)));
+	}
+
+	// same filters / sort as the repository finders, so the AdminAreaIndexManager indexes serve it
+	@Override
+	public Flux<AdminArea> findPage(AdminLevel level, String parentCode, String afterCode, int limit, boolean slim) {
+		final Query query = new Query();
+		if(level != null) {
+			query.addCriteria(Criteria.where("level").is(level));
+		}
+		if(StringUtils.hasText(parentCode)) {
+			query.addCriteria(Criteria.where("parentCode").is(parentCode));
+		}
+		if(afterCode != null) {
+			query.addCriteria(Criteria.where("code").gt(afterCode));
+		}
+		query.with(Sort.by(Sort.Direction.ASC, "code")).limit(limit);
+		if(slim) {
+			query.fields().include("code", "level", "parentCode", "nameEn");
+		}
+		return mongoOperations.find(query, AdminArea.class);
+	}
+
+	// path holds the code itself and all its ancestors, served by the path_code index
+	@Override
+	public Mono<Long> deleteSubtree(String code) {
+		return mongoOperations.remove(Query.query(Criteria.where("path").is(code)), AdminArea.class)
+				.map(DeleteResult::getDeletedCount);
+	}
+
+	// the driver error may arrive raw or translated (DuplicateKeyException, BulkOperationException)
+	private static List<BulkWriteError> writeErrors(final Throwable ex) {
+		Throwable t = ex;
+		while(t != null) {
+			if(t instanceof BulkOperationException bulk) {
+				return bulk.getErrors();
+			}
+			if(t instanceof MongoBulkWriteException bulk) {
+				return bulk.getWriteErrors();
+			}
+			t = t.getCause();
+		}
+		return null;
+	}
+}
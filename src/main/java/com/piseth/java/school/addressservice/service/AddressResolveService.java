@@ -0,0 +1,17 @@
+package com.piseth.java.school.addressservice.service;
+
+import java.util.List;
+
+import com.piseth.java.school.addressservice.dto.AddressResolution;
+
+import reactor.core.publisher.Flux;
+
+public interface AddressResolveService {
+
+	/**
+	 * One resolution per address, in the order of {@code addresses}.
+	 *
+	 * @param limit candidates per address, null = default
+	 */
+	Flux<AddressResolution> resolve(List<String> addresses, Integer limit);
+}
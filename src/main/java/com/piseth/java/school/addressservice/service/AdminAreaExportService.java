@@ -0,0 +1,16 @@
+package com.piseth.java.school.addressservice.service;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import com.piseth.java.school.addressservice.domain.enumeration.ExportFormat;
+
+import reactor.core.publisher.Flux;
+
+public interface AdminAreaExportService {
+
+	/**
+	 * Every admin area, sorted by code, with the upload columns
+	 * (code, level, parentCode, nameKh, nameEn) so the output can be uploaded again.
+	 */
+	Flux<DataBuffer> export(ExportFormat format);
+}
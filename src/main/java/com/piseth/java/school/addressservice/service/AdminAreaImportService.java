@@ -1,7 +1,12 @@
 package com.piseth.java.school.addressservice.service;
 
+import java.util.function.Consumer;
+
+import org.springframework.core.io.Resource;
 import org.springframework.http.codec.multipart.FilePart;
 
+import com.piseth.java.school.addressservice.dto.ImportCounter;
+import com.piseth.java.school.addressservice.dto.ImportOptions;
 import com.piseth.java.school.addressservice.dto.UploadSummary;
 
 import reactor.core.publisher.Mono;
@@ -9,4 +14,16 @@ import reactor.core.publisher.Mono;
 public interface AdminAreaImportService {
 
 	Mono<UploadSummary> importExcel(FilePart file, boolean dryRun);
+	
+	Mono<UploadSummary> importExcel(FilePart file, ImportOptions options);
+	
+	/**
+	 * @param progress called with the running counts after every row
+	 */
+	Mono<UploadSummary> importExcel(FilePart file, ImportOptions options, Consumer<ImportCounter> progress);
+	
+	/**
+	 * @return the NDJSON file of errors past the inline limit (UploadSummary.errorFileId)
+	 */
+	Mono<Resource> errorFile(String fileId);
 }
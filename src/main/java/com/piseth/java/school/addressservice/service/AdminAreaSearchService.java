@@ -0,0 +1,17 @@
+package com.piseth.java.school.addressservice.service;
+
+import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+import com.piseth.java.school.addressservice.dto.AdminAreaSearchResult;
+
+import reactor.core.publisher.Flux;
+
+public interface AdminAreaSearchService {
+
+	/**
+	 * Type-ahead over nameEn / nameKh, best matches first.
+	 *
+	 * @param parentCode only areas below this code (any depth), null = everywhere
+	 * @param limit at most this many results (default 10)
+	 */
+	Flux<AdminAreaSearchResult> search(String q, AdminLevel level, String parentCode, Integer limit);
+}
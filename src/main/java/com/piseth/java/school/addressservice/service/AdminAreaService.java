@@ -1,10 +1,16 @@
 package com.piseth.java.school.addressservice.service;
 
+import java.util.Collection;
+
 import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+import com.piseth.java.school.addressservice.dto.AdminAreaAncestors;
 import com.piseth.java.school.addressservice.dto.AdminAreaCreateRequest;
 import com.piseth.java.school.addressservice.dto.AdminAreaResponse;
 import com.piseth.java.school.addressservice.dto.AdminAreaSlimResponse;
 import com.piseth.java.school.addressservice.dto.AdminAreaUpdateRequest;
+import com.piseth.java.school.addressservice.dto.BatchGetResponse;
+import com.piseth.java.school.addressservice.dto.CascadeDeleteResult;
+import com.piseth.java.school.addressservice.dto.KeysetPage;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -13,7 +19,42 @@ public interface AdminAreaService {
 	Mono<AdminAreaResponse> create(AdminAreaCreateRequest dto);
 	Mono<AdminAreaResponse> get(String code);
 	Mono<Void> delete(String code);
+	
+	/**
+	 * Deletes the code and its whole subtree.
+	 *
+	 * @param dryRun only count what would be deleted
+	 */
+	Mono<CascadeDeleteResult> deleteCascade(String code, boolean dryRun);
 	Mono<AdminAreaResponse> update(String code, AdminAreaUpdateRequest dto);
 	Flux<AdminAreaResponse> list(AdminLevel level, String parentCode);
 	Flux<AdminAreaSlimResponse> listSlim(AdminLevel level, String parentCode);
+	
+	/**
+	 * Keyset paginated list / listSlim, sorted by code.
+	 *
+	 * @param after the nextCursor of the previous page, null for the first page
+	 */
+	Mono<KeysetPage<AdminAreaResponse>> listPage(AdminLevel level, String parentCode, int limit, String after);
+	Mono<KeysetPage<AdminAreaSlimResponse>> listSlimPage(AdminLevel level, String parentCode, int limit, String after);
+	
+	/**
+	 * Every area below {@code code}, sorted by code.
+	 *
+	 * @param maxDepth levels below the code to include (1 = children only), null = all
+	 * @param level only this level, null = every level
+	 */
+	Flux<AdminAreaResponse> descendants(String code, Integer maxDepth, AdminLevel level);
+	Flux<AdminAreaSlimResponse> descendantsSlim(String code, Integer maxDepth, AdminLevel level);
+	
+	Mono<BatchGetResponse<AdminAreaResponse>> batchGet(Collection<String> codes);
+	Mono<BatchGetResponse<AdminAreaSlimResponse>> batchGetSlim(Collection<String> codes);
+	
+	/**
+	 * Ancestors of {@code code}, province first.
+	 *
+	 * @param includeSelf also return the code itself, last
+	 */
+	Flux<AdminAreaResponse> ancestors(String code, boolean includeSelf);
+	Mono<BatchGetResponse<AdminAreaAncestors>> ancestorsBatch(Collection<String> codes, boolean includeSelf);
 }
@@ -0,0 +1,12 @@
+package com.piseth.java.school.addressservice.service;
+
+import reactor.core.publisher.Mono;
+
+public interface AdminAreaSnapshotService {
+
+	/**
+	 * The whole slim hierarchy (same JSON as GET /api/admin-areas/slim), gzipped.
+	 * Built once per DatasetVersion, every other call returns the same bytes.
+	 */
+	Mono<byte[]> gzippedSlimTree();
+}
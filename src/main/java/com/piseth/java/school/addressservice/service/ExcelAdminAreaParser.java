@@ -6,8 +6,18 @@ import com.piseth.java.school.addressservice.dto.ParsedRow;
 
 import reactor.core.publisher.Flux;
 
+/**
+ * Turns an uploaded file into ParsedRow. One implementation per file format
+ * (xlsx, csv, ndjson); ImportParserResolver picks the first one, in @Order,
+ * that supports the upload.
+ */
 public interface ExcelAdminAreaParser {
 	
 	Flux<ParsedRow> parse(FilePart file);
+	
+	/**
+	 * @return true when this parser reads the upload (file extension or Content-Type)
+	 */
+	boolean supports(FilePart file);
 
 }
@@ -0,0 +1,26 @@
+package com.piseth.java.school.addressservice.service;
+
+import org.springframework.http.codec.multipart.FilePart;
+
+import com.piseth.java.school.addressservice.dto.ImportJobResponse;
+import com.piseth.java.school.addressservice.dto.ImportOptions;
+import com.piseth.java.school.addressservice.dto.ImportProgress;
+import com.piseth.java.school.addressservice.dto.UploadSummary;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ImportJobService {
+
+	Mono<ImportJobResponse> submit(FilePart file, ImportOptions options);
+
+	Mono<ImportJobResponse> get(String jobId);
+
+	/**
+	 * Throttled progress snapshots, ending with one snapshot whose status is
+	 * COMPLETED or FAILED.
+	 */
+	Flux<ImportProgress> events(String jobId);
+
+	Mono<UploadSummary> summary(String jobId);
+}
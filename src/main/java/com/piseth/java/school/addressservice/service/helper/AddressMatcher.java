@@ -0,0 +1,312 @@
+package com.piseth.java.school.addressservice.service.helper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.piseth.java.school.addressservice.cache.AdminAreaSearchIndex;
+import com.piseth.java.school.addressservice.cache.AdminAreaSnapshot;
+import com.piseth.java.school.addressservice.domain.AdminArea;
+import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+
+/**
+ *  Free-text address -> ranked admin area candidates, over one AdminAreaSnapshot.
+ *
+ *  -The address is cut into segments (commas, or level keywords when there are none),
+ *   a leading keyword (phum / khum / srok / khet, ភូមិ / ឃុំ / ស្រុក / ខេត្ត ...) gives the level of its segment
+ *  -Top-down beam search : provinces, then the children of each kept candidate, and so on,
+ *   so every candidate chain is consistent with the parent hierarchy
+ *  -A level may be missing from the address (skip), each segment is used at most once
+ *  -Segment vs name similarity : 1 - levenshtein / longest length, names normalized like the search index
+ *  -When a pool gets too large (levels skipped) only exact names are matched, through byName
+ *  -score = similarities of the matched segments / number of segments, between 0 and 1
+ * */
+public final class AddressMatcher {
+
+	private static final int MAX_SEGMENTS = 16;
+	private static final Pattern PARTS = Pattern.compile("[,;|\\n]+");
+
+	private static final Map<String, AdminLevel> KEYWORDS = keywords();
+
+	// Khmer keywords are often written without a space before the name
+	private static final Pattern KHMER_KEYWORD = Pattern.compile("(^|\\s)(ភូមិ|ឃុំ|សង្កាត់|ស្រុក|ខណ្ឌ|ក្រុង|ខេត្ត|រាជធានី)(?=\\S)");
+
+	private static final Comparator<State> BY_SCORE = Comparator.comparingDouble(State::sum).reversed()
+			.thenComparing(Comparator.comparingInt(State::depth).reversed());
+
+	private final AdminAreaSnapshot snapshot;
+	private final Map<String, List<String>> names;
+	private final Map<AdminLevel, Map<String, List<AdminArea>>> byName;
+	private final int beamWidth;
+	private final double minSimilarity;
+	private final int maxPool;
+
+	private AddressMatcher(final AdminAreaSnapshot snapshot, final Map<String, List<String>> names,
+			final Map<AdminLevel, Map<String, List<AdminArea>>> byName,
+			final int beamWidth, final double minSimilarity, final int maxPool) {
+		this.snapshot = snapshot;
+		this.names = names;
+		this.byName = byName;
+		this.beamWidth = beamWidth;
+		this.minSimilarity = minSimilarity;
+		this.maxPool = maxPool;
+	}
+
+	public static AddressMatcher of(final AdminAreaSnapshot snapshot, final int beamWidth, final double minSimilarity, final int maxPool) {
+		final Map<String, List<String>> names = new HashMap<>(Math.max(16, snapshot.size() * 2));
+		final Map<AdminLevel, Map<String, List<AdminArea>>> byName = new EnumMap<>(AdminLevel.class);
+
+		for(AdminArea area : snapshot.list(null, null)) {
+			final Set<String> areaNames = new LinkedHashSet<>();
+			for(String name : new String[] {area.getNameEn(), area.getNameKh()}) {
+				final String normalized = prepare(name);
+				if(!normalized.isEmpty()) {
+					areaNames.add(normalized);
+					areaNames.add(stripKeyword(normalized));
+				}
+			}
+			areaNames.remove("");
+			names.put(area.getCode(), List.copyOf(areaNames));
+			if(area.getLevel() != null) {
+				final Map<String, List<AdminArea>> index = byName.computeIfAbsent(area.getLevel(), k -> new HashMap<>());
+				areaNames.forEach(name -> index.computeIfAbsent(name, k -> new ArrayList<>()).add(area));
+			}
+		}
+		return new AddressMatcher(snapshot, names, byName, beamWidth, minSimilarity, maxPool);
+	}
+
+	public AdminAreaSnapshot snapshot() {
+		return snapshot;
+	}
+
+	public record Match(AdminArea area, double score) {
+	}
+
+	/**
+	 * @return at most {@code limit} candidates, best first (score, then deeper level)
+	 */
+	public List<Match> resolve(final String address, final int limit) {
+		final List<Segment> segments = segments(address);
+		if(segments.isEmpty()) {
+			return List.of();
+		}
+
+		List<State> beam = List.of(new State(null, 0, 0));
+		for(AdminLevel level : AdminLevel.values()) {
+			final Map<String, State> next = new HashMap<>();
+			for(State state : beam) {
+				keep(next, state);
+				expand(state, level, segments, next);
+			}
+			beam = next.values().stream().sorted(BY_SCORE).limit(beamWidth).toList();
+		}
+
+		final Map<String, Match> best = new LinkedHashMap<>();
+		for(State state : beam) {
+			if(state.deepest() == null) {
+				continue;
+			}
+			final Match match = new Match(state.deepest(), state.sum() / segments.size());
+			best.merge(state.deepest().getCode(), match, (a, b) -> a.score() >= b.score() ? a : b);
+		}
+		return best.values().stream()
+				.sorted(Comparator.comparingDouble(Match::score).reversed()
+						.thenComparing(Comparator.comparingInt((Match m) -> m.area().getLevel().depth()).reversed())
+						.thenComparing(m -> m.area().getCode()))
+				.limit(limit)
+				.toList();
+	}
+
+	private void expand(final State state, final AdminLevel level, final List<Segment> segments, final Map<String, State> next) {
+		final List<AdminArea> pool = pool(state, level);
+		final boolean exactOnly = pool.size() > maxPool;
+
+		for(int i = 0; i < segments.size(); i++) {
+			final Segment segment = segments.get(i);
+			if(state.uses(i) || (segment.level() != null && segment.level() != level)) {
+				continue;
+			}
+			if(exactOnly) {
+				for(AdminArea area : byName.getOrDefault(level, Map.of()).getOrDefault(segment.text(), List.of())) {
+					if(state.deepest() == null || area.getCode().startsWith(state.deepest().getCode())) {
+						keep(next, state.with(area, i, 1.0));
+					}
+				}
+				continue;
+			}
+			for(AdminArea area : pool) {
+				final double similarity = similarity(segment.text(), area);
+				if(similarity >= minSimilarity) {
+					keep(next, state.with(area, i, similarity));
+				}
+			}
+		}
+	}
+
+	// candidates at {@code level} below the deepest area of the state
+	private List<AdminArea> pool(final State state, final AdminLevel level) {
+		final AdminArea deepest = state.deepest();
+		if(deepest == null) {
+			return snapshot.list(level, null);
+		}
+		if(deepest.getLevel().depth() == level.depth() - 1) {
+			return snapshot.list(null, deepest.getCode());
+		}
+		return snapshot.descendants(deepest.getCode(), EnumSet.of(level));
+	}
+
+	private static void keep(final Map<String, State> states, final State state) {
+		states.merge(state.key(), state, (a, b) -> a.sum() >= b.sum() ? a : b);
+	}
+
+	private double similarity(final String text, final AdminArea area) {
+		double best = 0;
+		for(String name : names.getOrDefault(area.getCode(), List.of())) {
+			best = Math.max(best, ratio(text, name));
+			if(best == 1.0) {
+				break;
+			}
+		}
+		return best;
+	}
+
+	private double ratio(final String a, final String b) {
+		if(a.equals(b)) {
+			return 1.0;
+		}
+		final int longest = Math.max(a.length(), b.length());
+		if(Math.abs(a.length() - b.length()) > longest * (1 - minSimilarity)) {
+			return 0;
+		}
+		return 1.0 - (double) levenshtein(a, b) / longest;
+	}
+
+	private static int levenshtein(final String a, final String b) {
+		int[] previous = new int[b.length() + 1];
+		int[] current = new int[b.length() + 1];
+		for(int j = 0; j <= b.length(); j++) {
+			previous[j] = j;
+		}
+		for(int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			for(int j = 1; j <= b.length(); j++) {
+				final int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+				current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+			}
+			final int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[b.length()];
+	}
+
+	/*
+	 "Phum X, Khum Y, Srok Z, Phnom Penh" -> [X (VILLAGE), Y (COMMUNE), Z (DISTRICT), phnom penh]
+	 "Phum X Khum Y"                       -> [X (VILLAGE), Y (COMMUNE)]   (no comma : cut at keywords)
+	 numbers only parts (house / street numbers) are dropped
+	 * */
+	static List<Segment> segments(final String address) {
+		final List<Segment> segments = new ArrayList<>();
+		if(address == null) {
+			return segments;
+		}
+		final String[] parts = PARTS.split(address);
+		final boolean cutAtKeywords = parts.length == 1;
+
+		for(String part : parts) {
+			final String normalized = prepare(part);
+			if(normalized.isEmpty()) {
+				continue;
+			}
+			AdminLevel level = null;
+			final List<String> words = new ArrayList<>();
+			for(String word : normalized.split(" ")) {
+				final AdminLevel keyword = KEYWORDS.get(word);
+				if(keyword != null && (cutAtKeywords || words.isEmpty())) {
+					if(!words.isEmpty()) {
+						add(segments, words, level);
+						words.clear();
+					}
+					level = keyword;
+					continue;
+				}
+				if(!word.chars().allMatch(Character::isDigit)) {
+					words.add(word);
+				}
+			}
+			add(segments, words, level);
+			if(segments.size() >= MAX_SEGMENTS) {
+				return segments.subList(0, MAX_SEGMENTS);
+			}
+		}
+		return segments;
+	}
+
+	private static void add(final List<Segment> segments, final List<String> words, final AdminLevel level) {
+		if(!words.isEmpty()) {
+			segments.add(new Segment(String.join(" ", words), level));
+		}
+	}
+
+	// search index normalization, Khmer keywords split from the name, "reach thani" as one word
+	private static String prepare(final String text) {
+		final String normalized = AdminAreaSearchIndex.normalize(text);
+		return KHMER_KEYWORD.matcher(normalized).replaceAll("$1$2 ").replace("reach thani", "reachthani");
+	}
+
+	private static String stripKeyword(final String name) {
+		final int space = name.indexOf(' ');
+		if(space > 0 && KEYWORDS.containsKey(name.substring(0, space))) {
+			return name.substring(space + 1);
+		}
+		return name;
+	}
+
+	private static Map<String, AdminLevel> keywords() {
+		final Map<String, AdminLevel> keywords = new HashMap<>();
+		for(String k : new String[] {"phum", "village", "ភូមិ"}) {
+			keywords.put(k, AdminLevel.VILLAGE);
+		}
+		for(String k : new String[] {"khum", "sangkat", "commune", "ឃុំ", "សង្កាត់"}) {
+			keywords.put(k, AdminLevel.COMMUNE);
+		}
+		for(String k : new String[] {"srok", "khan", "krong", "district", "ស្រុក", "ខណ្ឌ", "ក្រុង"}) {
+			keywords.put(k, AdminLevel.DISTRICT);
+		}
+		for(String k : new String[] {"khet", "province", "reachthani", "capital", "ខេត្ត", "រាជធានី"}) {
+			keywords.put(k, AdminLevel.PROVINCE);
+		}
+		return Map.copyOf(keywords);
+	}
+
+	record Segment(String text, AdminLevel level) {
+	}
+
+	// deepest matched area (null = nothing yet), used = bit set of the consumed segments
+	private record State(AdminArea deepest, int used, double sum) {
+
+		private boolean uses(final int segment) {
+			return (used & (1 << segment)) != 0;
+		}
+
+		private State with(final AdminArea area, final int segment, final double similarity) {
+			return new State(area, used | (1 << segment), sum + similarity);
+		}
+
+		private int depth() {
+			return deepest != null ? deepest.getLevel().depth() : 0;
+		}
+
+		private String key() {
+			return (deepest != null ? deepest.getCode() : "") + "/" + used;
+		}
+	}
+}
@@ -3,22 +3,44 @@ package com.piseth.java.school.addressservice.service.helper;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.piseth.java.school.addressservice.dto.ImportCounter;
 import com.piseth.java.school.addressservice.dto.RowError;
 import com.piseth.java.school.addressservice.dto.RowResult;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 
+/**
+ *  Counts every RowResult. Only the first inlineLimit errors are kept in
+ *  memory (and returned inline in UploadSummary), the rest go to the spool file.
+ *  Created by ImportErrorStore.newAccumulator(), close() once the import ends.
+ * */
 @Getter
-public class ImportAccumulator {
+public class ImportAccumulator implements AutoCloseable {
 	private int totalRows;
 	private int inserted;
+	private int updated;
+	private int unchanged;
 	private int duplicates;
 	private int validationErrors;
 	private int parentMissing;
 	private int otherErrors;
+	private int orphaned;
+	private int totalErrors;
 
 	private List<RowError> errors = new ArrayList<>();
 	
+	@Getter(AccessLevel.NONE)
+	private final int inlineLimit;
+	
+	@Getter(AccessLevel.NONE)
+	private final ImportErrorSpool spool;
+	
+	public ImportAccumulator(final int inlineLimit, final ImportErrorSpool spool) {
+		this.inlineLimit = inlineLimit;
+		this.spool = spool;
+	}
+	
 	public ImportAccumulator accumulate(final RowResult r) {
 		this.totalRows++;
 		
@@ -26,19 +48,52 @@ public class ImportAccumulator {
 			this.inserted++;
 		}else {
 			switch(r.getOutcome()) {
+			case UPDATED : this.updated++; break;
+			case UNCHANGED : this.unchanged++; break;
 			case DUPLICATE : this.duplicates++; break;
 			case VALIDATION : this.validationErrors++; break;
 			case PARENT_MISSING : this.parentMissing++; break;
 			case OTHER : this.otherErrors++; break;
+			default : break;
 			}
 		}
 		
 		if(r.getError() != null) {
-			errors.add(r.getError());
+			addError(r.getError());
 		}
 		
 		return this;
 	}
 	
+	/**
+	 * A stored area missing from the file, not counted as a row.
+	 */
+	public ImportAccumulator orphaned(final RowError error) {
+		this.orphaned++;
+		addError(error);
+		return this;
+	}
+	
+	private void addError(final RowError error) {
+		this.totalErrors++;
+		if(errors.size() < inlineLimit) {
+			errors.add(error);
+		}else {
+			spool.write(error);
+		}
+	}
+	
+	public String getErrorFileId() {
+		return spool.getFileId();
+	}
+	
+	public ImportCounter toCounter() {
+		return new ImportCounter(totalRows, inserted, updated, unchanged, duplicates, validationErrors, parentMissing, otherErrors, orphaned);
+	}
+	
+	@Override
+	public void close() {
+		spool.close();
+	}
 	
 }
@@ -0,0 +1,62 @@
+package com.piseth.java.school.addressservice.service.helper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.piseth.java.school.addressservice.dto.RowError;
+
+/**
+ *  Overflow of one import's errors, written as NDJSON (one RowError per line).
+ *  The file is only created on the first write, so an import that stays under
+ *  the inline limit never touches the disk.
+ * */
+public class ImportErrorSpool implements AutoCloseable {
+
+	private final ImportErrorStore store;
+	private final ObjectMapper objectMapper;
+
+	private String fileId;
+	private BufferedWriter writer;
+
+	ImportErrorSpool(final ImportErrorStore store, final ObjectMapper objectMapper) {
+		this.store = store;
+		this.objectMapper = objectMapper;
+	}
+
+	public void write(final RowError error) {
+		try {
+			if(writer == null) {
+				final ImportErrorStore.StoredFile file = store.create();
+				fileId = file.id();
+				writer = Files.newBufferedWriter(file.path(), StandardCharsets.UTF_8);
+			}
+			writer.write(objectMapper.writeValueAsString(error));
+			writer.newLine();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * @return id to download the spilled errors with, null when nothing spilled
+	 */
+	public String getFileId() {
+		return fileId;
+	}
+
+	@Override
+	public void close() {
+		if(writer == null) {
+			return;
+		}
+		try {
+			writer.close();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+}
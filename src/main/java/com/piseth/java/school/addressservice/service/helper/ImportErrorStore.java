@@ -0,0 +1,78 @@
+package com.piseth.java.school.addressservice.service.helper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *  -Creates the ImportAccumulator of each import with the configured inline error limit
+ *  -Keeps track of the spilled error files (temp dir) until the retention period ends
+ * */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImportErrorStore {
+
+	private final ObjectMapper objectMapper;
+
+	private final Map<String, StoredFile> files = new ConcurrentHashMap<>();
+
+	@Value("${address.import.errors.inline-limit:1000}")
+	private int inlineLimit;
+
+	@Value("${address.import.errors.retention:1h}")
+	private Duration retention;
+
+	public record StoredFile(String id, Path path, Instant createdAt) {
+	}
+
+	public ImportAccumulator newAccumulator() {
+		return new ImportAccumulator(inlineLimit, new ImportErrorSpool(this, objectMapper));
+	}
+
+	public Optional<Path> find(final String fileId) {
+		evictExpired();
+		return Optional.ofNullable(files.get(fileId)).map(StoredFile::path);
+	}
+
+	StoredFile create() throws IOException {
+		evictExpired();
+		final StoredFile file = new StoredFile(UUID.randomUUID().toString(),
+				Files.createTempFile("import-errors-", ".ndjson"), Instant.now());
+		files.put(file.id(), file);
+		return file;
+	}
+
+	private void evictExpired() {
+		final Instant expired = Instant.now().minus(retention);
+		files.values().removeIf(file -> {
+			if(file.createdAt().isAfter(expired)) {
+				return false;
+			}
+			delete(file.path());
+			return true;
+		});
+	}
+
+	private void delete(final Path path) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException ex) {
+			log.warn("Could not delete import error file {}", path, ex);
+		}
+	}
+}
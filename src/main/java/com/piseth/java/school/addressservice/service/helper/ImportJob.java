@@ -0,0 +1,74 @@
+package com.piseth.java.school.addressservice.service.helper;
+
+import java.time.Instant;
+
+import com.piseth.java.school.addressservice.domain.enumeration.ImportJobStatus;
+import com.piseth.java.school.addressservice.dto.ImportCounter;
+import com.piseth.java.school.addressservice.dto.ImportOptions;
+import com.piseth.java.school.addressservice.dto.UploadSummary;
+
+import lombok.Getter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ *  State of one background import :
+ *  -counter is replaced after every row (by the single import pipeline thread)
+ *  -progress() replays the latest counter to late subscribers and completes
+ *   when the job finishes
+ * */
+@Getter
+public class ImportJob {
+
+	private static final ImportCounter NOTHING_YET = new ImportCounter(0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+	private final String id;
+	private final ImportOptions options;
+	private final Instant createdAt = Instant.now();
+
+	private volatile ImportJobStatus status = ImportJobStatus.RUNNING;
+	private volatile ImportCounter counter = NOTHING_YET;
+	private volatile UploadSummary summary;
+	private volatile String error;
+	private volatile Instant finishedAt;
+
+	private final Sinks.Many<ImportCounter> sink = Sinks.many().replay().latest();
+
+	public ImportJob(final String id, final ImportOptions options) {
+		this.id = id;
+		this.options = options;
+	}
+
+	public boolean isDryRun() {
+		return options.dryRun();
+	}
+
+	public Flux<ImportCounter> progress() {
+		return sink.asFlux();
+	}
+
+	public void onProgress(final ImportCounter counter) {
+		this.counter = counter;
+		sink.tryEmitNext(counter);
+	}
+
+	public void complete(final UploadSummary summary) {
+		this.summary = summary;
+		finish(ImportJobStatus.COMPLETED);
+	}
+
+	public void fail(final String error) {
+		this.error = error;
+		finish(ImportJobStatus.FAILED);
+	}
+
+	public boolean isFinished() {
+		return status != ImportJobStatus.RUNNING;
+	}
+
+	private void finish(final ImportJobStatus status) {
+		this.finishedAt = Instant.now();
+		this.status = status;
+		sink.tryEmitComplete();
+	}
+}
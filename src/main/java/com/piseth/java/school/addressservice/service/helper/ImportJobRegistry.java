@@ -0,0 +1,64 @@
+package com.piseth.java.school.addressservice.service.helper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.piseth.java.school.addressservice.dto.ImportOptions;
+
+/**
+ *  Bounded in-memory registry of background imports (oldest first) :
+ *  -finished jobs are evicted after the retention period, or earlier (oldest
+ *   first) when the registry is full
+ *  -running jobs are never evicted, a new job is refused when all slots are running
+ * */
+@Component
+public class ImportJobRegistry {
+
+	private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+
+	@Value("${address.import.jobs.max:50}")
+	private int maxJobs;
+
+	@Value("${address.import.jobs.retention:30m}")
+	private Duration retention;
+
+	public synchronized ImportJob register(final ImportOptions options) {
+		evictExpired();
+		evictOldestFinished();
+		if(jobs.size() >= maxJobs) {
+			throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many running imports, try again later");
+		}
+		final ImportJob job = new ImportJob(UUID.randomUUID().toString(), options);
+		jobs.put(job.getId(), job);
+		return job;
+	}
+
+	public synchronized Optional<ImportJob> find(final String id) {
+		evictExpired();
+		return Optional.ofNullable(jobs.get(id));
+	}
+
+	private void evictExpired() {
+		final Instant expired = Instant.now().minus(retention);
+		jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(expired));
+	}
+
+	private void evictOldestFinished() {
+		final Iterator<ImportJob> oldest = jobs.values().iterator();
+		while(jobs.size() >= maxJobs && oldest.hasNext()) {
+			if(oldest.next().isFinished()) {
+				oldest.remove();
+			}
+		}
+	}
+}
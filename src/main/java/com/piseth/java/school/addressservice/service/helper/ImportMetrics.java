@@ -0,0 +1,122 @@
+package com.piseth.java.school.addressservice.service.helper;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.piseth.java.school.addressservice.domain.enumeration.ImportMode;
+import com.piseth.java.school.addressservice.domain.enumeration.ImportWriteMode;
+import com.piseth.java.school.addressservice.domain.enumeration.Outcome;
+import com.piseth.java.school.addressservice.dto.RowResult;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ *  Micrometer meters of the import pipeline, tagged per import with parser / mode / dry_run
+ *  (low cardinality on purpose, a job id tag would create a time series per upload)
+ *  mode is the write path that actually ran : ROW, BULK or UPSERT (upsert ignores the write mode)
+ *
+ *  -address.import           whole import from subscription (not assembly, a queued job is not
+ *                            import time), plus status (completed / failed / cancelled)
+ *  -address.import.parse     from subscription until the parser has emitted its last row
+ *  -address.import.sort      BY_DEPTH sort of the parsed rows
+ *  -address.import.validate  AdminAreaValidator.validate, per row
+ *  -address.import.write     one insert (ROW), one bulk insert (BULK) or one bulk insert / update (UPSERT)
+ *  -address.import.rows      rows per Outcome
+ *  Meters are looked up once per import (Run), the per row cost is a timer record / counter increment.
+ * */
+@Component
+@RequiredArgsConstructor
+public class ImportMetrics {
+
+	private final MeterRegistry registry;
+
+	public Run start(final String parser, final ImportWriteMode writeMode, final ImportMode importMode, final boolean dryRun) {
+		final String mode = importMode == ImportMode.UPSERT ? importMode.name() : writeMode.name();
+		return new Run(registry, Tags.of("parser", parser, "mode", mode, "dry_run", Boolean.toString(dryRun)));
+	}
+
+	public static final class Run {
+
+		private final MeterRegistry registry;
+		private final Tags tags;
+		private volatile Timer.Sample started;
+		private final Timer parse;
+		private final Timer sort;
+		private final Timer validate;
+		private final Timer write;
+		private final Map<Outcome, Counter> outcomes = new EnumMap<>(Outcome.class);
+
+		private Run(final MeterRegistry registry, final Tags tags) {
+			this.registry = registry;
+			this.tags = tags;
+			this.parse = registry.timer("address.import.parse", tags);
+			this.sort = registry.timer("address.import.sort", tags);
+			this.validate = registry.timer("address.import.validate", tags);
+			this.write = registry.timer("address.import.write", tags);
+			for(Outcome outcome : Outcome.values()) {
+				outcomes.put(outcome, registry.counter("address.import.rows", tags.and("outcome", outcome.name())));
+			}
+		}
+
+		/**
+		 * Wraps the whole import, the clock starts when it is subscribed.
+		 */
+		public <T> Mono<T> timeImport(final Mono<T> run) {
+			return run
+				.doOnSubscribe(subscription -> started = Timer.start(registry))
+				.doFinally(this::finish);
+		}
+
+		public <T> Flux<T> timeParse(final Flux<T> rows) {
+			return Flux.defer(() -> {
+				final Timer.Sample sample = Timer.start(registry);
+				return rows.doOnComplete(() -> sample.stop(parse));
+			});
+		}
+
+		public <T> List<T> sort(final List<T> rows, final Comparator<? super T> comparator) {
+			sort.record(() -> rows.sort(comparator));
+			return rows;
+		}
+
+		public <T> T validate(final Supplier<T> validation) {
+			return validate.record(validation);
+		}
+
+		public <T> Mono<T> timeWrite(final Mono<T> write) {
+			return Mono.defer(() -> {
+				final Timer.Sample sample = Timer.start(registry);
+				return write.doFinally(signal -> sample.stop(this.write));
+			});
+		}
+
+		public void count(final RowResult result) {
+			outcomes.get(result.getOutcome()).increment();
+		}
+
+		private void finish(final SignalType signal) {
+			final Timer.Sample sample = started;
+			if(sample == null) {
+				return;
+			}
+			final String status = switch (signal) {
+			case ON_COMPLETE -> "completed";
+			case ON_ERROR -> "failed";
+			default -> "cancelled";
+			};
+			sample.stop(registry.timer("address.import", tags.and("status", status)));
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package com.piseth.java.school.addressservice.service.helper;
+
+import java.util.List;
+
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.stereotype.Component;
+
+import com.piseth.java.school.addressservice.service.ExcelAdminAreaParser;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ *  Picks the parser of an upload : parsers are injected in @Order, the first
+ *  one that supports the file wins (the Excel parser, last, accepts anything).
+ * */
+@Component
+@RequiredArgsConstructor
+public class ImportParserResolver {
+
+	private final List<ExcelAdminAreaParser> parsers;
+
+	public ExcelAdminAreaParser resolve(final FilePart file) {
+		return parsers.stream()
+				.filter(parser -> parser.supports(file))
+				.findFirst()
+				.orElseThrow(() -> new IllegalArgumentException("Unsupported file: " + file.filename()));
+	}
+}
@@ -0,0 +1,59 @@
+package com.piseth.java.school.addressservice.service.helper;
+
+import java.util.Optional;
+
+import com.piseth.java.school.addressservice.domain.AdminCode;
+import com.piseth.java.school.addressservice.domain.enumeration.Outcome;
+import com.piseth.java.school.addressservice.dto.ParsedRow;
+import com.piseth.java.school.addressservice.exception.AdminAreaException;
+import com.piseth.java.school.addressservice.exception.ParentNotFoundException;
+import com.piseth.java.school.addressservice.exception.ValidationException;
+
+/**
+ *  One linear pass over the rows of a file, before they are mapped, validated or written :
+ *  -a code already seen in the file : DUPLICATE (the first row keeps the code)
+ *  -a level that does not match the depth of the code : VALIDATION
+ *  -a parent neither accepted earlier in the file nor stored : PARENT_MISSING
+ *  -an unreadable code / parent code is left to the validator
+ *
+ *  Rows must arrive in BY_DEPTH order (every parent before its children), a rejected row
+ *  breaks the chain of everything below it unless its code is stored.
+ *  State is two KnownCodes (packed codes), one instance per import run.
+ * */
+public final class ImportPrecheck {
+
+	private final KnownCodes stored;
+	private final KnownCodes seen = KnownCodes.empty();
+	private final KnownCodes accepted = KnownCodes.empty();
+
+	public ImportPrecheck(final KnownCodes stored) {
+		this.stored = stored;
+	}
+
+	/**
+	 * @return the rejection, empty when the row goes on to the import
+	 */
+	public Optional<AdminAreaException> check(final ParsedRow row) {
+		final int code = AdminCode.parseTrimmed(row.code());
+		if(!AdminCode.isValid(code)) {
+			return Optional.empty();
+		}
+
+		if(!seen.add(code)) {
+			return Optional.of(new AdminAreaException(Outcome.DUPLICATE, "Code appears more than once in the file: " + AdminCode.toString(code)));
+		}
+
+		if(row.level() != null && row.level().depth() != AdminCode.depth(code)) {
+			return Optional.of(new ValidationException("Code depth does not match level : " + row.level()));
+		}
+
+		final int parent = AdminCode.parseTrimmed(row.parentCode());
+		if(AdminCode.depth(code) > 1 && AdminCode.isValid(parent)
+				&& !accepted.contains(parent) && !stored.contains(parent)) {
+			return Optional.of(new ParentNotFoundException(AdminCode.toString(parent)));
+		}
+
+		accepted.add(code);
+		return Optional.empty();
+	}
+}
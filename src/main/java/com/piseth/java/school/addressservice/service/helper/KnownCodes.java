@@ -0,0 +1,128 @@
+package com.piseth.java.school.addressservice.service.helper;
+
+import com.piseth.java.school.addressservice.domain.AdminCode;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ *  Codes known to exist during one import run:
+ *  -prefetched once from MongoDB (code only projection)
+ *  -grows with every code inserted (or accepted, on a dry run) in the same run
+ *  so parent / duplicate checks never go back to the database
+ *  -held as packed AdminCode ints in an open addressing table (linear probing, 0 = empty slot),
+ *   no String / boxed key per code, about 8 bytes per code instead of a hash set entry
+ *  -only valid codes are kept, an invalid code is never "known" (the validator rejects it first)
+ *  -rows of one level are checked concurrently, every access is synchronized (short critical sections)
+ * */
+public final class KnownCodes {
+
+	private static final int MIN_CAPACITY = 1 << 10;
+
+	private int[] table = new int[MIN_CAPACITY];
+	private int size;
+
+	private KnownCodes() {
+	}
+
+	public static KnownCodes empty() {
+		return new KnownCodes();
+	}
+
+	public static Mono<KnownCodes> load(final Flux<String> existing) {
+		return existing
+				.collect(KnownCodes::new, KnownCodes::add);
+	}
+
+	public boolean contains(final String code) {
+		return contains(AdminCode.parse(code));
+	}
+
+	public boolean contains(final int packed) {
+		if(!AdminCode.isValid(packed)) {
+			return false;
+		}
+		synchronized (this) {
+			return table[slot(table, packed)] == packed;
+		}
+	}
+
+	/**
+	 * @return false when the code was already known (or is not a valid code)
+	 */
+	public boolean add(final String code) {
+		return add(AdminCode.parse(code));
+	}
+
+	public boolean add(final int packed) {
+		if(!AdminCode.isValid(packed)) {
+			return false;
+		}
+		synchronized (this) {
+			final int slot = slot(table, packed);
+			if(table[slot] == packed) {
+				return false;
+			}
+			table[slot] = packed;
+			if(++size * 2 > table.length) {
+				resize();
+			}
+			return true;
+		}
+	}
+
+	public void remove(final String code) {
+		final int packed = AdminCode.parse(code);
+		if(!AdminCode.isValid(packed)) {
+			return;
+		}
+		synchronized (this) {
+			int hole = slot(table, packed);
+			if(table[hole] != packed) {
+				return;
+			}
+			table[hole] = 0;
+			size--;
+			// backward shift, so no later entry of the probe chain is cut off by the hole
+			final int mask = table.length - 1;
+			for(int i = (hole + 1) & mask; table[i] != 0; i = (i + 1) & mask) {
+				final int home = hash(table[i]) & mask;
+				if(((i - home) & mask) >= ((i - hole) & mask)) {
+					table[hole] = table[i];
+					table[i] = 0;
+					hole = i;
+				}
+			}
+		}
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	private void resize() {
+		final int[] next = new int[table.length * 2];
+		for(int packed : table) {
+			if(packed != 0) {
+				next[slot(next, packed)] = packed;
+			}
+		}
+		table = next;
+	}
+
+	// slot holding the code, or the empty slot where it would go (the table is never more than half full)
+	private static int slot(final int[] table, final int packed) {
+		final int mask = table.length - 1;
+		int i = hash(packed) & mask;
+		while(table[i] != 0 && table[i] != packed) {
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	// codes are dense runs of small numbers, spread them over the table
+	private static int hash(final int packed) {
+		final int h = packed * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
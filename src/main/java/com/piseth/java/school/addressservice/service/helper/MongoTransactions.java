@@ -0,0 +1,69 @@
+package com.piseth.java.school.addressservice.service.helper;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.piseth.java.school.addressservice.domain.enumeration.TransactionMode;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ *  Runs a write in a MongoDB transaction when the deployment supports them :
+ *  -AUTO asks the server once (hello) : replica set (setName) or mongos (msg = isdbgrid)
+ *  -a standalone server has no transactions, the write then runs as is
+ * */
+@Slf4j
+@Component
+public class MongoTransactions {
+
+	private final ReactiveMongoOperations mongoOperations;
+	private final TransactionalOperator transactionalOperator;
+	private final TransactionMode mode;
+
+	// answer of the server, null until it answered once (a failed check is asked again next time)
+	private volatile Boolean supported;
+
+	public MongoTransactions(final ReactiveMongoOperations mongoOperations,
+			final TransactionalOperator transactionalOperator,
+			@Value("${address.cascade-delete.transactions:AUTO}") final TransactionMode mode) {
+		this.mongoOperations = mongoOperations;
+		this.transactionalOperator = transactionalOperator;
+		this.mode = mode;
+	}
+
+	public Mono<Boolean> enabled() {
+		return switch (mode) {
+		case ALWAYS -> Mono.just(Boolean.TRUE);
+		case NEVER -> Mono.just(Boolean.FALSE);
+		case AUTO -> supported();
+		};
+	}
+
+	private Mono<Boolean> supported() {
+		final Boolean known = supported;
+		if(known != null) {
+			return Mono.just(known);
+		}
+		return mongoOperations.executeCommand(new Document("hello", 1))
+				.map(hello -> hello.get("setName") != null || "isdbgrid".equals(hello.get("msg")))
+				.doOnNext(result -> {
+					supported = result;
+					log.info("MongoDB transactions {}", result ? "supported" : "not supported (standalone server)");
+				})
+				.onErrorResume(ex -> {
+					log.warn("Could not tell whether MongoDB supports transactions, this write runs without one", ex);
+					return Mono.just(Boolean.FALSE);
+				});
+	}
+
+	/**
+	 * @param write deferred, subscribed once inside or outside the transaction
+	 */
+	public <T> Mono<T> run(final boolean transactional, final Mono<T> write) {
+		return transactional ? transactionalOperator.transactional(write) : write;
+	}
+}
@@ -0,0 +1,43 @@
+package com.piseth.java.school.addressservice.service.helper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.piseth.java.school.addressservice.exception.ValidationException;
+
+/**
+ *  Opaque keyset cursor : base64url("v1:" + last code of the page)
+ *  -the next page is "code > last code", same code sort, never skip / offset
+ *  -the version prefix lets the format change without breaking old cursors silently
+ * */
+public final class PageCursor {
+
+	private static final String PREFIX = "v1:";
+
+	private PageCursor() {
+	}
+
+	public static String encode(final String lastCode) {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((PREFIX + lastCode).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @return the last code of the previous page, null when {@code cursor} is blank (first page)
+	 */
+	public static String decode(final String cursor) {
+		if(cursor == null || cursor.isBlank()) {
+			return null;
+		}
+		final String decoded;
+		try {
+			decoded = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException ex) {
+			throw new ValidationException("Invalid page cursor");
+		}
+		if(!decoded.startsWith(PREFIX) || decoded.length() == PREFIX.length()) {
+			throw new ValidationException("Invalid page cursor");
+		}
+		return decoded.substring(PREFIX.length());
+	}
+}
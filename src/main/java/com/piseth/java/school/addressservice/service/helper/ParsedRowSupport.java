@@ -0,0 +1,88 @@
+package com.piseth.java.school.addressservice.service.helper;
+
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePart;
+
+import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+import com.piseth.java.school.addressservice.dto.ParsedRow;
+
+/**
+ *  Rules shared by every upload parser so they produce the same ParsedRow
+ *  for the same logical row:
+ *  -header names are compared lower-cased
+ *  -cell values are trimmed, empty becomes null
+ *  -a row where every column is blank is skipped
+ * */
+public final class ParsedRowSupport {
+
+	public static final Set<String> REQUIRED_HEADERS = Set.of(
+			"code","level","parentcode","namekh","nameen"
+			);
+
+	public static final String MISSING_HEADERS_MESSAGE = "Header must include: code, level, parentCode, nameKh, nameEn";
+
+	private ParsedRowSupport() {
+	}
+
+	/**
+	 * @return true when the upload file name ends with one of the extensions
+	 *         (lowercase, without dot) or its Content-Type is one of the types
+	 */
+	public static boolean isFormat(final FilePart file, final Set<String> extensions, final Set<MediaType> types) {
+		final String filename = file.filename();
+		if(filename != null) {
+			final int dot = filename.lastIndexOf('.');
+			if(dot >= 0 && extensions.contains(filename.substring(dot + 1).toLowerCase(Locale.ROOT))) {
+				return true;
+			}
+		}
+		final MediaType contentType = file.headers().getContentType();
+		return contentType != null && types.stream().anyMatch(t -> t.isCompatibleWith(contentType));
+	}
+
+	public static String clean(final String v) {
+		if(v == null) {
+			return null;
+		}
+		final String t = v.trim();
+		if(t.isEmpty()) {
+			return null;
+		}
+		return t;
+	}
+
+	public static boolean isBlank(final String s) {
+		return s == null || s.trim().isEmpty();
+	}
+
+	public static AdminLevel parseLevel(final String raw) {
+		if(raw == null) {
+			return null;
+		}
+		final String u = raw.trim().toUpperCase();
+		for(AdminLevel lvl : AdminLevel.values()) {
+			if(lvl.name().equals(u)) {
+				return lvl;
+			}
+		}
+		throw new IllegalArgumentException("Unknown level");
+	}
+
+	/**
+	 * @return the ParsedRow, or null when every column is blank
+	 */
+	public static ParsedRow toRow(final int lineNumber, final String code, final String level,
+			final String parent, final String nameKh, final String nameEn) {
+		if(isBlank(code) &&
+				isBlank(level) &&
+				isBlank(parent) &&
+				isBlank(nameEn) &&
+				isBlank(nameKh)) {
+			return null;
+		}
+		return new ParsedRow(lineNumber, code, parseLevel(level), parent, nameKh, nameEn);
+	}
+}
@@ -0,0 +1,95 @@
+package com.piseth.java.school.addressservice.service.helper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.codec.multipart.FilePart;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ *  A FilePart backed by a local file, so an upload copied to disk can be
+ *  parsed after the HTTP request that carried it has completed.
+ *  delete() removes the file.
+ * */
+public class PathFilePart implements FilePart {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final String name;
+	private final String filename;
+	private final HttpHeaders headers;
+	private final Path path;
+
+	public PathFilePart(final String name, final String filename, final HttpHeaders headers, final Path path) {
+		this.name = name;
+		this.filename = filename;
+		this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+		this.path = path;
+	}
+
+	public static PathFilePart copyOf(final FilePart part, final Path path) {
+		return new PathFilePart(part.name(), part.filename(), part.headers(), path);
+	}
+
+	@Override
+	public String name() {
+		return name;
+	}
+
+	@Override
+	public String filename() {
+		return filename;
+	}
+
+	@Override
+	public HttpHeaders headers() {
+		return headers;
+	}
+
+	public Path path() {
+		return path;
+	}
+
+	@Override
+	public Flux<DataBuffer> content() {
+		return DataBufferUtils.read(path, DefaultDataBufferFactory.sharedInstance, BUFFER_SIZE);
+	}
+
+	@Override
+	public Mono<Void> transferTo(Path dest) {
+		return Mono.<Void>fromRunnable(() -> copy(dest))
+				.subscribeOn(Schedulers.boundedElastic());
+	}
+
+	@Override
+	public Mono<Void> delete() {
+		return Mono.<Void>fromRunnable(() -> deleteFile())
+				.subscribeOn(Schedulers.boundedElastic());
+	}
+
+	private void copy(final Path dest) {
+		try {
+			Files.copy(path, dest, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private void deleteFile() {
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+}
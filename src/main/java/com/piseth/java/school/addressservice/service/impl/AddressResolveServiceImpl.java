@@ -0,0 +1,94 @@
+package com.piseth.java.school.addressservice.service.impl;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.piseth.java.school.addressservice.cache.AdminAreaSnapshot;
+import com.piseth.java.school.addressservice.cache.AdminAreaSnapshotHolder;
+import com.piseth.java.school.addressservice.dto.AddressResolution;
+import com.piseth.java.school.addressservice.exception.ValidationException;
+import com.piseth.java.school.addressservice.mapper.AdminAreaMapper;
+import com.piseth.java.school.addressservice.service.AddressResolveService;
+import com.piseth.java.school.addressservice.service.helper.AddressMatcher;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ *  -Runs over the in-memory AdminAreaSnapshot only, 503 while it is not loaded (or disabled)
+ *  -The AddressMatcher (name indexes) is rebuilt lazily when the snapshot instance changes
+ *  -Addresses are matched in chunks on the parallel scheduler (CPU only),
+ *   flatMapSequential keeps the input order
+ * */
+@Service
+@RequiredArgsConstructor
+public class AddressResolveServiceImpl implements AddressResolveService{
+
+	private static final int DEFAULT_LIMIT = 3;
+	private static final int CHUNK_SIZE = 64;
+
+	private final AdminAreaSnapshotHolder snapshotHolder;
+	private final AdminAreaMapper mapper;
+
+	private final AtomicReference<AddressMatcher> matcher = new AtomicReference<>();
+
+	@Value("${address.resolve.max-addresses:1000}")
+	private int maxAddresses;
+
+	@Value("${address.resolve.beam-width:8}")
+	private int beamWidth;
+
+	@Value("${address.resolve.min-similarity:0.75}")
+	private double minSimilarity;
+
+	// larger candidate pools (levels missing from the address) only match exact names
+	@Value("${address.resolve.max-pool:500}")
+	private int maxPool;
+
+	@Override
+	public Flux<AddressResolution> resolve(List<String> addresses, Integer limit) {
+		return Flux.defer(() -> {
+			final int size = limit != null ? limit : DEFAULT_LIMIT;
+			if(size < 1 || size > beamWidth) {
+				return Flux.error(new ValidationException("limit must be between 1 and " + beamWidth));
+			}
+			if(addresses.size() > maxAddresses) {
+				return Flux.error(new ValidationException("At most " + maxAddresses + " addresses per request"));
+			}
+			final AdminAreaSnapshot snapshot = snapshotHolder.current()
+					.orElseThrow(() -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Admin area snapshot is not loaded"));
+			final AddressMatcher current = matcher(snapshot);
+
+			return Flux.fromIterable(addresses)
+					.buffer(CHUNK_SIZE)
+					.flatMapSequential(chunk -> Mono.fromCallable(() -> chunk.stream()
+								.map(address -> resolve(current, address, size))
+								.toList())
+							.subscribeOn(Schedulers.parallel()))
+					.flatMapIterable(resolutions -> resolutions);
+		});
+	}
+
+	private AddressResolution resolve(final AddressMatcher current, final String address, final int limit) {
+		return new AddressResolution(address, current.resolve(address, limit).stream()
+				.map(match -> mapper.toAddressCandidate(match.area(), match.score()))
+				.toList());
+	}
+
+	private AddressMatcher matcher(final AdminAreaSnapshot snapshot) {
+		final AddressMatcher existing = matcher.get();
+		if(existing != null && existing.snapshot() == snapshot) {
+			return existing;
+		}
+		final AddressMatcher built = AddressMatcher.of(snapshot, beamWidth, minSimilarity, maxPool);
+		matcher.set(built);
+		return built;
+	}
+}
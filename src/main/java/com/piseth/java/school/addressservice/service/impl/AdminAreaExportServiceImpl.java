@@ -0,0 +1,181 @@
+package com.piseth.java.school.addressservice.service.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.piseth.java.school.addressservice.domain.enumeration.ExportFormat;
+import com.piseth.java.school.addressservice.dto.AdminAreaCreateRequest;
+import com.piseth.java.school.addressservice.mapper.AdminAreaMapper;
+import com.piseth.java.school.addressservice.repository.AdminAreaRepsitory;
+import com.piseth.java.school.addressservice.service.AdminAreaExportService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ *  -Rows come straight from the MongoDB cursor (findAll sorted by code), with backpressure
+ *  -NDJSON / CSV : rows are encoded in small batches, nothing else is kept
+ *  -XLSX : SXSSFWorkbook keeps only XLSX_ROW_WINDOW rows in memory, older rows are flushed
+ *   to a temp file, the workbook is then written through DataBufferUtils.outputStreamPublisher
+ *   (blocking POI work on boundedElastic, the writer waits for downstream demand)
+ *  -Same columns / header as the upload so every format can be uploaded again
+ * */
+@Service
+@RequiredArgsConstructor
+public class AdminAreaExportServiceImpl implements AdminAreaExportService{
+
+	private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.ASC, "code");
+	private static final String[] HEADER = {"code", "level", "parentCode", "nameKh", "nameEn"};
+	private static final int BATCH_SIZE = 256;
+	private static final int XLSX_ROW_WINDOW = 100;
+	private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+	private final AdminAreaRepsitory repository;
+	private final AdminAreaMapper mapper;
+	private final ObjectMapper objectMapper;
+
+	private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+	@Override
+	public Flux<DataBuffer> export(ExportFormat format) {
+		return switch (format) {
+		case NDJSON -> ndjson();
+		case CSV -> csv();
+		case XLSX -> xlsx();
+		};
+	}
+
+	private Flux<AdminAreaCreateRequest> rows(){
+		return repository.findAll(DEFAULT_SORT).map(mapper::toCreateRequest);
+	}
+
+	private Flux<DataBuffer> ndjson(){
+		return rows()
+			.buffer(BATCH_SIZE)
+			.map(batch -> encode(batch, this::writeJsonLine));
+	}
+
+	private Flux<DataBuffer> csv(){
+		final Flux<DataBuffer> header = Flux.defer(() -> {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			out.writeBytes(UTF8_BOM);
+			out.writeBytes(csvLine(HEADER).getBytes(StandardCharsets.UTF_8));
+			return Flux.just(bufferFactory.wrap(out.toByteArray()));
+		});
+
+		final Flux<DataBuffer> body = rows()
+			.buffer(BATCH_SIZE)
+			.map(batch -> encode(batch, (row, out) -> out.writeBytes(csvLine(values(row)).getBytes(StandardCharsets.UTF_8))));
+
+		return header.concatWith(body);
+	}
+
+	private Flux<DataBuffer> xlsx(){
+		return Flux.from(DataBufferUtils.outputStreamPublisher(
+				this::writeXlsx,
+				bufferFactory,
+				task -> Schedulers.boundedElastic().schedule(task)));
+	}
+
+	private void writeXlsx(final OutputStream out) {
+		final SXSSFWorkbook wb = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+		try {
+			final Sheet sheet = wb.createSheet("adminAreas");
+			writeCells(sheet.createRow(0), HEADER);
+
+			int r = 1;
+			// runs on boundedElastic, blocking on the cursor is fine here
+			for(AdminAreaCreateRequest row : rows().toIterable(BATCH_SIZE)) {
+				writeCells(sheet.createRow(r++), values(row));
+			}
+			wb.write(out);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		} finally {
+			wb.dispose();
+			try {
+				wb.close();
+			} catch (IOException ex) {
+				// temp files are already disposed
+			}
+		}
+	}
+
+	private void writeCells(final Row row, final String[] values) {
+		for(int c = 0; c < values.length; c++) {
+			if(values[c] != null) {
+				row.createCell(c).setCellValue(values[c]);
+			}
+		}
+	}
+
+	private String[] values(final AdminAreaCreateRequest row) {
+		return new String[] {
+				row.getCode(),
+				row.getLevel() != null ? row.getLevel().name() : null,
+				row.getParentCode(),
+				row.getNameKh(),
+				row.getNameEn()
+		};
+	}
+
+	private void writeJsonLine(final AdminAreaCreateRequest row, final ByteArrayOutputStream out) {
+		try {
+			out.writeBytes(objectMapper.writeValueAsBytes(row));
+			out.write('\n');
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private DataBuffer encode(final List<AdminAreaCreateRequest> batch, final RowWriter writer) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(batch.size() * 96);
+		for(AdminAreaCreateRequest row : batch) {
+			writer.write(row, out);
+		}
+		return bufferFactory.wrap(out.toByteArray());
+	}
+
+	private static String csvLine(final String[] values) {
+		final StringBuilder line = new StringBuilder();
+		for(int c = 0; c < values.length; c++) {
+			if(c > 0) {
+				line.append(',');
+			}
+			line.append(csvField(values[c]));
+		}
+		return line.append("\r\n").toString();
+	}
+
+	private static String csvField(final String value) {
+		if(value == null) {
+			return "";
+		}
+		if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	@FunctionalInterface
+	private interface RowWriter {
+		void write(AdminAreaCreateRequest row, ByteArrayOutputStream out);
+	}
+}
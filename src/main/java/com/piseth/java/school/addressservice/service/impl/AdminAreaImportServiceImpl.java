@@ -1,82 +1,466 @@
 package com.piseth.java.school.addressservice.service.impl;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.mongodb.bulk.BulkWriteError;
 import com.piseth.java.school.addressservice.domain.AdminArea;
+import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+import com.piseth.java.school.addressservice.domain.enumeration.ImportMode;
+import com.piseth.java.school.addressservice.domain.enumeration.ImportWriteMode;
 import com.piseth.java.school.addressservice.domain.enumeration.Outcome;
-import com.piseth.java.school.addressservice.dto.AdminAreaCreateRequest;
+import com.piseth.java.school.addressservice.dto.ImportCandidate;
+import com.piseth.java.school.addressservice.dto.ImportCounter;
+import com.piseth.java.school.addressservice.dto.ImportOptions;
 import com.piseth.java.school.addressservice.dto.ParsedRow;
 import com.piseth.java.school.addressservice.dto.RowError;
 import com.piseth.java.school.addressservice.dto.RowResult;
 import com.piseth.java.school.addressservice.dto.UploadSummary;
+import com.piseth.java.school.addressservice.event.AdminAreaChangedEvent;
+import com.piseth.java.school.addressservice.exception.AdminAreaException;
+import com.piseth.java.school.addressservice.exception.DuplicateAdminAreaException;
+import com.piseth.java.school.addressservice.exception.ParentNotFoundException;
 import com.piseth.java.school.addressservice.mapper.AdminAreaMapper;
 import com.piseth.java.school.addressservice.mapper.ParsedRowMapper;
 import com.piseth.java.school.addressservice.mapper.UploadSummaryMapper;
+import com.piseth.java.school.addressservice.repository.AdminAreaRepsitory;
 import com.piseth.java.school.addressservice.service.AdminAreaImportService;
-import com.piseth.java.school.addressservice.service.AdminAreaService;
 import com.piseth.java.school.addressservice.service.ExcelAdminAreaParser;
 import com.piseth.java.school.addressservice.service.helper.ImportAccumulator;
+import com.piseth.java.school.addressservice.service.helper.ImportErrorStore;
+import com.piseth.java.school.addressservice.service.helper.ImportMetrics;
+import com.piseth.java.school.addressservice.service.helper.ImportParserResolver;
+import com.piseth.java.school.addressservice.service.helper.ImportPrecheck;
+import com.piseth.java.school.addressservice.service.helper.KnownCodes;
 import com.piseth.java.school.addressservice.service.helper.RowErrorClassifier;
 import com.piseth.java.school.addressservice.validator.AdminAreaValidator;
 
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 @RequiredArgsConstructor
 public class AdminAreaImportServiceImpl implements AdminAreaImportService{
 
-	private final ExcelAdminAreaParser parser;
+	private static final int DUPLICATE_KEY = 11000;
+
+	private final ImportParserResolver parserResolver;
 	private final ParsedRowMapper parsedRowMapper;
 	private final AdminAreaMapper adminAreaMapper;
 	private final AdminAreaValidator validator;
-	private final AdminAreaService adminAreaService;
+	private final AdminAreaRepsitory repository;
 	private final RowErrorClassifier rowErrorClassifier;
 	private final UploadSummaryMapper uploadSummaryMapper;
-	
+	private final ImportErrorStore errorStore;
+	private final ApplicationEventPublisher eventPublisher;
+	private final ImportMetrics importMetrics;
+
+	@Value("${address.import.write-mode:BULK}")
+	private ImportWriteMode writeMode;
+
+	@Value("${address.import.chunk-size:500}")
+	private int chunkSize;
+
+	// rows (ROW) or chunks (BULK) written at the same time within one depth level
+	@Value("${address.import.level-concurrency:8}")
+	private int levelConcurrency;
+
 	@Override
 	public Mono<UploadSummary> importExcel(FilePart file, boolean dryRun) {
-		
-		
-		
-		return parser.parse(file)
-			.sort(ParsedRow.BY_DEPTH)
-			.concatMap(row -> handleRow(row, dryRun))
-			.reduce(new ImportAccumulator(), ImportAccumulator::accumulate)
-			.map(uploadSummaryMapper::toUploadSummary);
-			
-	}
-	
-	private Mono<RowResult> handleRow(final ParsedRow row,boolean dryRun){
-		AdminAreaCreateRequest createRequest = parsedRowMapper.toCreateRequest(row);
-		
-		return validate(createRequest)
-		.then(maybeCreate(createRequest, dryRun))
+		return importExcel(file, ImportOptions.of(dryRun));
+	}
+
+	@Override
+	public Mono<UploadSummary> importExcel(FilePart file, ImportOptions options) {
+		return importExcel(file, options, counter -> {});
+	}
+
+	@Override
+	public Mono<UploadSummary> importExcel(FilePart file, ImportOptions options, Consumer<ImportCounter> progress) {
+
+		final boolean dryRun = options.dryRun();
+		final ExcelAdminAreaParser parser = parserResolver.resolve(file);
+		final ImportMetrics.Run metrics = importMetrics.start(parser.getClass().getSimpleName(), writeMode, options.mode(), dryRun);
+
+		// every code of the file, only filled when orphans are reported
+		final KnownCodes inFile = KnownCodes.empty();
+
+		// BY_DEPTH needs the whole file : every ParsedRow is held here (the workbook is not),
+		// a streaming parser bounds parse memory, not the rows of one upload
+		final Flux<ParsedRow> rows = metrics.timeParse(parser.parse(file))
+			.collectList()
+			.flatMapIterable(parsed -> metrics.sort(parsed, ParsedRow.BY_DEPTH))
+			.doOnNext(row -> {
+				if(options.reportOrphans()) {
+					inFile.add(Objects.toString(row.code(), "").trim());
+				}
+			});
+
+		final ImportAccumulator accumulator = errorStore.newAccumulator();
+
+		return metrics.timeImport(KnownCodes.load(repository.findAllCodes().map(AdminArea::getCode))
+			.flatMapMany(known -> {
+				final ImportPrecheck precheck = new ImportPrecheck(known);
+				if(options.mode() == ImportMode.UPSERT) {
+					return byLevel(rows, precheck, level -> upsertImport(level, known, dryRun, metrics));
+				}
+				return byLevel(rows, precheck, level -> writeMode == ImportWriteMode.BULK
+						? bulkImport(level, known, dryRun, metrics)
+						: level.flatMapSequential(row -> handleRow(row, known, dryRun, metrics), levelConcurrency));
+			})
+			// past the inline limit errors go to the spool file, never on a driver / event loop thread
+			.publishOn(Schedulers.boundedElastic())
+			.reduce(accumulator, (acc, result) -> {
+				acc.accumulate(result);
+				metrics.count(result);
+				progress.accept(acc.toCounter());
+				return acc;
+			})
+			.flatMap(acc -> options.reportOrphans() ? flagOrphans(acc, inFile, metrics, progress) : Mono.just(acc))
+			.doOnNext(acc -> publishReload(acc, options))
+			// flushed before the summary (and its errorFileUrl) goes out, a flush error fails the import
+			.doOnNext(ImportAccumulator::close)
+			.map(uploadSummaryMapper::toUploadSummary)
+			.doFinally(signal -> {
+				if(signal != SignalType.ON_COMPLETE) {
+					accumulator.close();
+				}
+			}));
+
+	}
+
+	/*
+	 BY_DEPTH puts parents before children, so one depth level at a time :
+	 provinces, then districts, communes, villages (then invalid codes)
+	 rows of a level run concurrently, the next level waits until the whole level is written
+	 the precheck rejects in-file duplicates / broken parent chains / level mismatches of a level
+	 before any of its rows is validated or written
+	 * */
+	private Flux<RowResult> byLevel(final Flux<ParsedRow> sortedRows, final ImportPrecheck precheck,
+			final Function<Flux<ParsedRow>, Flux<RowResult>> handleLevel){
+		return sortedRows
+			.bufferUntilChanged(ParsedRow::depth)
+			.concatMap(level -> {
+				final List<RowResult> rejected = new ArrayList<>();
+				final List<ParsedRow> accepted = new ArrayList<>(level.size());
+				for(ParsedRow row : level) {
+					precheck.check(row).ifPresentOrElse(
+							ex -> rejected.add(toError(row, ex)),
+							() -> accepted.add(row));
+				}
+				return Flux.fromIterable(rejected)
+					.concatWith(handleLevel.apply(Flux.fromIterable(accepted)));
+			});
+	}
+
+	@Override
+	public Mono<Resource> errorFile(String fileId) {
+		return Mono.justOrEmpty(errorStore.find(fileId))
+			.<Resource>map(FileSystemResource::new)
+			.switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Import error file not found: " + fileId)));
+	}
+
+	private Mono<RowResult> handleRow(final ParsedRow row, final KnownCodes known, boolean dryRun, final ImportMetrics.Run metrics){
+		final ImportCandidate candidate = prepare(row, metrics);
+		if(!candidate.isValid()) {
+			return Mono.just(candidate.rejected());
+		}
+
+		final Optional<RowResult> rejected = checkKnownCodes(candidate, known);
+		if(rejected.isPresent()) {
+			return Mono.just(rejected.get());
+		}
+
+		final String code = candidate.entity().getCode();
+		known.add(code);
+
+		return maybeInsert(candidate.entity(), dryRun, metrics)
 		.map(ok -> RowResult.inserted())
-		.onErrorResume(ex ->{
-			final Outcome outcome = rowErrorClassifier.classify(ex);
-			final String msg = rowErrorClassifier.safeMessage(ex);
-			RowError error = new RowError(row.lineNumber(), row.code(), msg);
-			return Mono.just(RowResult.error(outcome, error));
+		.onErrorResume(ex -> {
+			final RowResult error = toError(row, ex instanceof DuplicateKeyException ? new DuplicateAdminAreaException(code) : ex);
+			if(error.getOutcome() != Outcome.DUPLICATE) {
+				known.remove(code);
+			}
+			return Mono.just(error);
 		});
-		
+
 	}
-	
-	private Mono<Boolean> maybeCreate(final AdminAreaCreateRequest req, boolean dryRun){
+
+	/**
+	 * Parent / duplicate checks of AdminAreaServiceImpl.create, answered from the
+	 * prefetched codes (no existsById per row).
+	 *
+	 * @return the rejection, empty when the row can be written
+	 */
+	private Optional<RowResult> checkKnownCodes(final ImportCandidate candidate, final KnownCodes known) {
+		final AdminArea entity = candidate.entity();
+
+		if(entity.getLevel() != AdminLevel.PROVINCE && !known.contains(entity.getParentCode())) {
+			return Optional.of(toError(candidate.row(), new ParentNotFoundException(entity.getParentCode())));
+		}
+
+		if(known.contains(entity.getCode())) {
+			return Optional.of(toError(candidate.row(), new DuplicateAdminAreaException(entity.getCode())));
+		}
+
+		return Optional.empty();
+	}
+
+	private RowResult toError(final ParsedRow row, final Throwable ex) {
+		final Outcome outcome = rowErrorClassifier.classify(ex);
+		final String msg = rowErrorClassifier.safeMessage(ex);
+		RowError error = new RowError(row.lineNumber(), row.code(), msg);
+		return RowResult.error(outcome, error);
+	}
+
+	// already validated and checked against KnownCodes, one insert and nothing else per row
+	private Mono<Boolean> maybeInsert(final AdminArea entity, boolean dryRun, final ImportMetrics.Run metrics){
 		if(dryRun) {
 			return Mono.just(Boolean.TRUE);
 		}
-		return adminAreaService.create(req).thenReturn(Boolean.TRUE);
+		return metrics.timeWrite(repository.insert(entity)).thenReturn(Boolean.TRUE);
 	}
-	
-	private Mono<Void> validate(final AdminAreaCreateRequest req){
-		return Mono.fromRunnable(() ->{
-			AdminArea adminArea = adminAreaMapper.toEntity(req);
-			validator.validate(adminArea);
-		});
+
+	// every write path bypasses AdminAreaService, tell the read models once at the end
+	private void publishReload(final ImportAccumulator acc, final ImportOptions options) {
+		if(!options.dryRun() && acc.getInserted() + acc.getUpdated() > 0) {
+			eventPublisher.publishEvent(AdminAreaChangedEvent.reloaded());
+		}
 	}
-	
+
+	/*
+	 bulk path, same outcomes as handleRow :
+	 validate each row (same validator / classifier)
+	 => PARENT_MISSING / DUPLICATE resolved against the prefetched KnownCodes
+	 => chunk of chunkSize rows (within one depth level)
+	 => one unordered bulk insert per chunk, duplicate key errors become DUPLICATE
+	 	up to levelConcurrency chunks in flight
+	 * */
+	private Flux<RowResult> bulkImport(final Flux<ParsedRow> rows, final KnownCodes known, final boolean dryRun, final ImportMetrics.Run metrics){
+		return rows
+			.map(row -> prepare(row, metrics))
+			.buffer(chunkSize)
+			.flatMapSequential(chunk -> insertChunk(chunk, known, dryRun, metrics), levelConcurrency);
+	}
+
+	private ImportCandidate prepare(final ParsedRow row, final ImportMetrics.Run metrics) {
+		try {
+			final AdminArea entity = adminAreaMapper.toEntity(parsedRowMapper.toCreateRequest(row));
+			metrics.validate(() -> {
+				validator.validate(entity);
+				return entity;
+			});
+			return ImportCandidate.valid(row, entity);
+		} catch (RuntimeException ex) {
+			return ImportCandidate.rejected(row, toError(row, ex));
+		}
+	}
+
+	private Flux<RowResult> insertChunk(final List<ImportCandidate> chunk, final KnownCodes known, final boolean dryRun, final ImportMetrics.Run metrics){
+		final RowResult[] results = new RowResult[chunk.size()];
+		final List<Integer> positions = new ArrayList<>();
+		final List<AdminArea> toInsert = new ArrayList<>();
+		final Instant now = Instant.now();
+
+		for(int i = 0; i < chunk.size(); i++) {
+			final ImportCandidate candidate = chunk.get(i);
+			if(!candidate.isValid()) {
+				results[i] = candidate.rejected();
+				continue;
+			}
+
+			final Optional<RowResult> rejected = checkKnownCodes(candidate, known);
+			if(rejected.isPresent()) {
+				results[i] = rejected.get();
+				continue;
+			}
+
+			final AdminArea entity = candidate.entity();
+
+			// what auditing + @Version would set on repository.save
+			entity.setCreateAt(now);
+			entity.setUpdateAt(now);
+			entity.setVersion(0L);
+
+			known.add(entity.getCode());
+			positions.add(i);
+			toInsert.add(entity);
+			results[i] = RowResult.inserted();
+		}
+
+		if(dryRun) {
+			return Flux.fromArray(results);
+		}
+
+		return bulkWrite(repository.insertAllUnordered(toInsert), chunk, positions, results, known::remove, metrics)
+			.thenMany(Flux.fromArray(results));
+	}
+
+	/**
+	 * Runs one bulk write of the rows at {@code positions} and replaces their result
+	 * with the error of every row that failed.
+	 *
+	 * @param onFailed called with the code of a row that was not written (except duplicates)
+	 */
+	private Mono<Void> bulkWrite(final Mono<List<BulkWriteError>> write, final List<ImportCandidate> chunk, final List<Integer> positions,
+			final RowResult[] results, final Consumer<String> onFailed, final ImportMetrics.Run metrics){
+		if(positions.isEmpty()) {
+			return Mono.empty();
+		}
+		return metrics.timeWrite(write)
+			.doOnNext(errors -> {
+				for(BulkWriteError error : errors) {
+					final int pos = positions.get(error.getIndex());
+					final ImportCandidate candidate = chunk.get(pos);
+					results[pos] = toError(candidate.row(), toException(candidate.entity(), error, onFailed));
+				}
+			})
+			.onErrorResume(ex -> {
+				for(int pos : positions) {
+					onFailed.accept(chunk.get(pos).entity().getCode());
+					results[pos] = toError(chunk.get(pos).row(), ex);
+				}
+				return Mono.empty();
+			})
+			.then();
+	}
+
+	private AdminAreaException toException(final AdminArea entity, final BulkWriteError error, final Consumer<String> onFailed) {
+		if(error.getCode() == DUPLICATE_KEY) {
+			return new DuplicateAdminAreaException(entity.getCode());
+		}
+		onFailed.accept(entity.getCode());
+		return new AdminAreaException(Outcome.OTHER, error.getMessage());
+	}
+
+	/*
+	 upsert path (ImportMode.UPSERT), always chunked like the bulk path :
+	 validate each row (in-file duplicates are already rejected by the precheck), PARENT_MISSING against KnownCodes
+	 => one findByCodeIn per chunk for the codes already stored
+	 => new code : inserted, stored code with the same values : UNCHANGED (no write),
+	 	otherwise the stored area takes the values of the row : UPDATED
+	 => one unordered bulk insert + one unordered bulk update per chunk
+	 * */
+	private Flux<RowResult> upsertImport(final Flux<ParsedRow> rows, final KnownCodes known, final boolean dryRun, final ImportMetrics.Run metrics){
+		return rows
+			.map(row -> prepare(row, metrics))
+			.buffer(chunkSize)
+			.flatMapSequential(chunk -> findStored(chunk, known)
+					.flatMapMany(stored -> upsertChunk(chunk, stored, known, dryRun, metrics)), levelConcurrency);
+	}
+
+	// only codes of KnownCodes can be stored, a chunk of new codes costs no read
+	private Mono<Map<String, AdminArea>> findStored(final List<ImportCandidate> chunk, final KnownCodes known){
+		final List<String> codes = chunk.stream()
+			.filter(ImportCandidate::isValid)
+			.map(candidate -> candidate.entity().getCode())
+			.filter(known::contains)
+			.toList();
+		if(codes.isEmpty()) {
+			return Mono.just(Map.of());
+		}
+		return repository.findByCodeIn(codes, Sort.unsorted())
+			.collectMap(AdminArea::getCode);
+	}
+
+	private Flux<RowResult> upsertChunk(final List<ImportCandidate> chunk, final Map<String, AdminArea> stored, final KnownCodes known,
+			final boolean dryRun, final ImportMetrics.Run metrics){
+		final RowResult[] results = new RowResult[chunk.size()];
+		final List<Integer> inserts = new ArrayList<>();
+		final List<AdminArea> toInsert = new ArrayList<>();
+		final List<Integer> updates = new ArrayList<>();
+		final List<AdminArea> toUpdate = new ArrayList<>();
+		final Instant now = Instant.now();
+
+		for(int i = 0; i < chunk.size(); i++) {
+			final ImportCandidate candidate = chunk.get(i);
+			if(!candidate.isValid()) {
+				results[i] = candidate.rejected();
+				continue;
+			}
+
+			final AdminArea entity = candidate.entity();
+			if(entity.getLevel() != AdminLevel.PROVINCE && !known.contains(entity.getParentCode())) {
+				results[i] = toError(candidate.row(), new ParentNotFoundException(entity.getParentCode()));
+				continue;
+			}
+
+			final AdminArea current = stored.get(entity.getCode());
+			if(current == null) {
+				entity.setCreateAt(now);
+				entity.setUpdateAt(now);
+				entity.setVersion(0L);
+				known.add(entity.getCode());
+				inserts.add(i);
+				toInsert.add(entity);
+				results[i] = RowResult.inserted();
+			}else if(sameValues(current, entity)) {
+				results[i] = RowResult.unchanged();
+			}else {
+				current.setLevel(entity.getLevel());
+				current.setParentCode(entity.getParentCode());
+				current.setNameKh(entity.getNameKh());
+				current.setNameEn(entity.getNameEn());
+				current.setPath(entity.getPath());
+				current.setUpdateAt(now);
+				updates.add(i);
+				toUpdate.add(current);
+				results[i] = RowResult.updated();
+			}
+		}
+
+		if(dryRun) {
+			return Flux.fromArray(results);
+		}
+
+		// a failed update leaves the stored area (and its code) in place
+		return bulkWrite(repository.insertAllUnordered(toInsert), chunk, inserts, results, known::remove, metrics)
+			.then(bulkWrite(repository.updateAllUnordered(toUpdate), chunk, updates, results, code -> {}, metrics))
+			.thenMany(Flux.fromArray(results));
+	}
+
+	private static boolean sameValues(final AdminArea stored, final AdminArea row) {
+		return stored.getLevel() == row.getLevel()
+				&& Objects.equals(stored.getParentCode(), row.getParentCode())
+				&& Objects.equals(stored.getNameKh(), row.getNameKh())
+				&& Objects.equals(stored.getNameEn(), row.getNameEn())
+				&& Objects.equals(stored.getPath(), row.getPath());
+	}
+
+	// stored areas that no row of the file mentions, reported (line 0) but never deleted
+	private Mono<ImportAccumulator> flagOrphans(final ImportAccumulator accumulator, final KnownCodes inFile,
+			final ImportMetrics.Run metrics, final Consumer<ImportCounter> progress){
+		return repository.findAllCodes()
+			.map(AdminArea::getCode)
+			.filter(code -> !inFile.contains(code))
+			.publishOn(Schedulers.boundedElastic())
+			.reduce(accumulator, (acc, code) -> {
+				final RowResult orphan = RowResult.error(Outcome.ORPHANED, new RowError(0, code, "Not in the uploaded file"));
+				acc.orphaned(orphan.getError());
+				metrics.count(orphan);
+				progress.accept(acc.toCounter());
+				return acc;
+			});
+	}
+
 }
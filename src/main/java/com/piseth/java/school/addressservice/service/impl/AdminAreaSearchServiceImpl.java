@@ -0,0 +1,45 @@
+package com.piseth.java.school.addressservice.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.piseth.java.school.addressservice.cache.AdminAreaSearchIndex;
+import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+import com.piseth.java.school.addressservice.dto.AdminAreaSearchResult;
+import com.piseth.java.school.addressservice.exception.ValidationException;
+import com.piseth.java.school.addressservice.mapper.AdminAreaMapper;
+import com.piseth.java.school.addressservice.service.AdminAreaSearchService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+@Service
+@RequiredArgsConstructor
+public class AdminAreaSearchServiceImpl implements AdminAreaSearchService{
+
+	private static final int DEFAULT_LIMIT = 10;
+
+	private final AdminAreaSearchIndex searchIndex;
+	private final AdminAreaMapper mapper;
+
+	@Value("${address.search.max-limit:50}")
+	private int maxLimit;
+
+	// pure in-memory work, no scheduler hop
+	@Override
+	public Flux<AdminAreaSearchResult> search(String q, AdminLevel level, String parentCode, Integer limit) {
+		return Flux.defer(() -> {
+			final int size = limit != null ? limit : DEFAULT_LIMIT;
+			if(size < 1 || size > maxLimit) {
+				return Flux.error(new ValidationException("limit must be between 1 and " + maxLimit));
+			}
+			if(!searchIndex.isReady()) {
+				return Flux.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Search index is not loaded yet"));
+			}
+			return Flux.fromIterable(searchIndex.search(q, level, parentCode, size))
+					.map(hit -> mapper.toSearchResult(hit.area(), hit.score()));
+		});
+	}
+}
@@ -1,24 +1,48 @@
 package com.piseth.java.school.addressservice.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import com.piseth.java.school.addressservice.cache.AdminAreaSnapshot;
+import com.piseth.java.school.addressservice.cache.AdminAreaSnapshotHolder;
 import com.piseth.java.school.addressservice.domain.AdminArea;
 import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
+import com.piseth.java.school.addressservice.dto.AdminAreaAncestors;
 import com.piseth.java.school.addressservice.dto.AdminAreaCreateRequest;
 import com.piseth.java.school.addressservice.dto.AdminAreaResponse;
 import com.piseth.java.school.addressservice.dto.AdminAreaSlimResponse;
 import com.piseth.java.school.addressservice.dto.AdminAreaUpdateRequest;
+import com.piseth.java.school.addressservice.dto.BatchGetResponse;
+import com.piseth.java.school.addressservice.dto.CascadeDeleteResult;
+import com.piseth.java.school.addressservice.dto.KeysetPage;
+import com.piseth.java.school.addressservice.event.AdminAreaChangedEvent;
 import com.piseth.java.school.addressservice.exception.AdminAreaNotFoundException;
 import com.piseth.java.school.addressservice.exception.ChildrenExistException;
 import com.piseth.java.school.addressservice.exception.DuplicateAdminAreaException;
 import com.piseth.java.school.addressservice.exception.ParentNotFoundException;
+import com.piseth.java.school.addressservice.exception.ValidationException;
 import com.piseth.java.school.addressservice.mapper.AdminAreaMapper;
 import com.piseth.java.school.addressservice.repository.AdminAreaRepsitory;
 import com.piseth.java.school.addressservice.service.AdminAreaService;
+import com.piseth.java.school.addressservice.service.helper.MongoTransactions;
+import com.piseth.java.school.addressservice.service.helper.PageCursor;
 import com.piseth.java.school.addressservice.validator.AdminAreaValidator;
 
 import lombok.RequiredArgsConstructor;
@@ -32,8 +56,25 @@ public class AdminAreaServiceImpl implements AdminAreaService{
 	private final AdminAreaRepsitory repository;
 	private final AdminAreaValidator validator;
 	private final AdminAreaMapper mapper;
+	private final AdminAreaSnapshotHolder snapshotHolder;
+	private final ApplicationEventPublisher eventPublisher;
+	private final MongoTransactions transactions;
 	
 	private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.ASC, "code");
+	
+	// codes per $in query, and per batch-get request
+	@Value("${address.batch-get.chunk-size:1000}")
+	private int batchChunkSize;
+	
+	@Value("${address.batch-get.max-codes:10000}")
+	private int batchMaxCodes;
+	
+	@Value("${address.page.max-limit:1000}")
+	private int maxPageLimit;
+	
+	// larger cascade deletes tell the read models to reload instead of one DELETED per area
+	@Value("${address.cascade-delete.reload-threshold:100}")
+	private int cascadeReloadThreshold;
 
 	/*
 	 map from dto to entity
@@ -58,6 +99,7 @@ public class AdminAreaServiceImpl implements AdminAreaService{
 			return Mono.when(checkParentCodeExists(candidate), ensureCodeIsUnique(candidate))
 			.thenReturn(candidate)
 			.flatMap(c -> repository.save(c))
+			.doOnNext(this::publishUpserted)
 			.map(mapper::toResponse)
 			;
 		});
@@ -98,9 +140,15 @@ public class AdminAreaServiceImpl implements AdminAreaService{
 	
 	
 
+	private void publishUpserted(final AdminArea saved) {
+		eventPublisher.publishEvent(AdminAreaChangedEvent.upserted(saved));
+	}
+
 	@Override
 	public Mono<AdminAreaResponse> get(String code) {
-		return repository.findById(code)
+		return snapshotHolder.current()
+				.map(snapshot -> Mono.justOrEmpty(snapshot.get(code)))
+				.orElseGet(() -> repository.findById(code))
 				.switchIfEmpty(Mono.error(new AdminAreaNotFoundException(code)))
 				.map(mapper::toResponse);
 	}
@@ -120,12 +168,73 @@ public class AdminAreaServiceImpl implements AdminAreaService{
 						if(hasChildren) {
 							return Mono.error(new ChildrenExistException(code));
 						}
-						return repository.deleteById(code);
+						return repository.deleteById(code)
+								.then(Mono.fromRunnable(() -> eventPublisher.publishEvent(AdminAreaChangedEvent.deleted(code))));
 					});
 			});
 			
 	}
 
+	/*
+	 cascade delete :
+	 the code and every area below it, read once (code + level) => per level counts
+	 => dry run : counts only, nothing is written
+	 => one deleteMany on path, read and delete in one transaction when MongoDB supports them
+	 	(without one, an area added below the code meanwhile is deleted but not counted)
+	 => after the commit : one DELETED per area, or one RELOADED for large / inexact subtrees
+	 * */
+	@Override
+	public Mono<CascadeDeleteResult> deleteCascade(String code, boolean dryRun) {
+		return transactions.enabled()
+			.map(supported -> supported && !dryRun)
+			.flatMap(transactional -> transactions.run(transactional, removeSubtree(code, dryRun))
+				.doOnNext(removal -> {
+					if(!dryRun) {
+						publishDeleted(removal);
+					}
+				})
+				.map(removal -> CascadeDeleteResult.builder()
+						.code(code)
+						.dryRun(dryRun)
+						.transactional(transactional)
+						.deleted(countByLevel(removal.subtree()))
+						.total(removal.deleted())
+						.build()));
+	}
+
+	private Mono<SubtreeRemoval> removeSubtree(final String code, final boolean dryRun){
+		return repository.findSubtreeLevels(code)
+			.collectList()
+			.flatMap(subtree -> {
+				if(subtree.stream().noneMatch(area -> code.equals(area.getCode()))) {
+					return Mono.error(new AdminAreaNotFoundException(code));
+				}
+				if(dryRun) {
+					return Mono.just(new SubtreeRemoval(subtree, subtree.size()));
+				}
+				return repository.deleteSubtree(code)
+						.map(deleted -> new SubtreeRemoval(subtree, deleted));
+			});
+	}
+
+	private void publishDeleted(final SubtreeRemoval removal) {
+		if(removal.deleted() != removal.subtree().size() || removal.deleted() > cascadeReloadThreshold) {
+			eventPublisher.publishEvent(AdminAreaChangedEvent.reloaded());
+			return;
+		}
+		removal.subtree().forEach(area -> eventPublisher.publishEvent(AdminAreaChangedEvent.deleted(area.getCode())));
+	}
+
+	private static Map<AdminLevel, Long> countByLevel(final List<AdminArea> subtree){
+		return subtree.stream()
+				.filter(area -> area.getLevel() != null)
+				.collect(Collectors.groupingBy(AdminArea::getLevel, () -> new EnumMap<>(AdminLevel.class), Collectors.counting()));
+	}
+
+	// areas read before the delete, and the number of documents the delete removed
+	private record SubtreeRemoval(List<AdminArea> subtree, long deleted) {
+	}
+
 	@Override
 	public Mono<AdminAreaResponse> update(String code, AdminAreaUpdateRequest dto) {
 		return repository.findById(code)
@@ -134,11 +243,261 @@ public class AdminAreaServiceImpl implements AdminAreaService{
 				mapper.update(entity, dto);
 				return repository.save(entity);
 			})
+			.doOnNext(this::publishUpserted)
 			.map(mapper::toResponse);
 	}
 
 	@Override
 	public Flux<AdminAreaResponse> list(AdminLevel level, String parentCode) {
+		return snapshotHolder.current()
+				.map(snapshot -> fromSnapshot(snapshot, level, parentCode).map(mapper::toResponse))
+				.orElseGet(() -> queryList(level, parentCode));
+	}
+	
+	@Override
+	public Flux<AdminAreaSlimResponse> listSlim(AdminLevel level, String parentCode) {
+		return snapshotHolder.current()
+				.map(snapshot -> fromSnapshot(snapshot, level, parentCode).map(mapper::toSlimResponse))
+				.orElseGet(() -> queryListSlim(level, parentCode));
+	}
+	
+	/*
+	 keyset page :
+	 decode the cursor (last code of the previous page)
+	 => limit + 1 rows with code > cursor, same filters and code sort as list
+	 => the extra row only tells that there is a next page
+	 * */
+	@Override
+	public Mono<KeysetPage<AdminAreaResponse>> listPage(AdminLevel level, String parentCode, int limit, String after) {
+		return page(level, parentCode, limit, after, false, mapper::toResponse);
+	}
+
+	@Override
+	public Mono<KeysetPage<AdminAreaSlimResponse>> listSlimPage(AdminLevel level, String parentCode, int limit, String after) {
+		return page(level, parentCode, limit, after, true, mapper::toSlimResponse);
+	}
+
+	private <T> Mono<KeysetPage<T>> page(final AdminLevel level, final String parentCode, final int limit, final String cursor,
+			final boolean slim, final Function<AdminArea, T> toResponse){
+		return Mono.defer(() -> {
+			if(limit < 1 || limit > maxPageLimit) {
+				return Mono.error(new ValidationException("limit must be between 1 and " + maxPageLimit));
+			}
+			final String afterCode = PageCursor.decode(cursor);
+			return snapshotHolder.current()
+					.map(snapshot -> Flux.fromIterable(snapshot.page(level, parentCode, afterCode, limit + 1)))
+					.orElseGet(() -> repository.findPage(level, parentCode, afterCode, limit + 1, slim))
+					.collectList()
+					.map(rows -> toPage(rows, limit, toResponse));
+		});
+	}
+
+	private <T> KeysetPage<T> toPage(final List<AdminArea> rows, final int limit, final Function<AdminArea, T> toResponse){
+		final List<AdminArea> items = rows.size() > limit ? rows.subList(0, limit) : rows;
+		final String nextCursor = rows.size() > limit ? PageCursor.encode(items.get(items.size() - 1).getCode()) : null;
+		return new KeysetPage<>(items.stream().map(toResponse).toList(), nextCursor);
+	}
+
+	private Flux<AdminArea> fromSnapshot(final AdminAreaSnapshot snapshot, final AdminLevel level, final String parentCode){
+		return Flux.fromIterable(snapshot.list(level, parentCode));
+	}
+
+	/*
+	 descendants :
+	 find the root (404 when missing)
+	 => levels below it, limited by maxDepth / level
+	 => snapshot range scan, or one query on the materialized path
+	 * */
+	@Override
+	public Flux<AdminAreaResponse> descendants(String code, Integer maxDepth, AdminLevel level) {
+		return snapshotHolder.current()
+				.map(snapshot -> descendantsFromSnapshot(snapshot, code, maxDepth, level).map(mapper::toResponse))
+				.orElseGet(() -> findRoot(code)
+						.flatMapMany(root -> queryDescendants(root, maxDepth, level, repository::findDescendants))
+						.map(mapper::toResponse));
+	}
+
+	@Override
+	public Flux<AdminAreaSlimResponse> descendantsSlim(String code, Integer maxDepth, AdminLevel level) {
+		return snapshotHolder.current()
+				.map(snapshot -> descendantsFromSnapshot(snapshot, code, maxDepth, level).map(mapper::toSlimResponse))
+				.orElseGet(() -> findRoot(code)
+						.flatMapMany(root -> queryDescendants(root, maxDepth, level, repository::findSlimDescendants))
+						.map(mapper::toSlimResponse));
+	}
+
+	private Mono<AdminArea> findRoot(final String code){
+		return repository.findById(code)
+				.switchIfEmpty(Mono.error(new AdminAreaNotFoundException(code)));
+	}
+
+	private Flux<AdminArea> descendantsFromSnapshot(final AdminAreaSnapshot snapshot, final String code,
+			final Integer maxDepth, final AdminLevel level){
+		return Mono.justOrEmpty(snapshot.get(code))
+				.switchIfEmpty(Mono.error(new AdminAreaNotFoundException(code)))
+				.flatMapIterable(root -> snapshot.descendants(root.getCode(), descendantLevels(root, maxDepth, level)));
+	}
+
+	private Flux<AdminArea> queryDescendants(final AdminArea root, final Integer maxDepth, final AdminLevel level,
+			final DescendantQuery query){
+		final Set<AdminLevel> levels = descendantLevels(root, maxDepth, level);
+		if(levels.isEmpty()) {
+			return Flux.empty();
+		}
+		return query.find(root.getCode(), levels, DEFAULT_SORT);
+	}
+
+	private Set<AdminLevel> descendantLevels(final AdminArea root, final Integer maxDepth, final AdminLevel level){
+		if(maxDepth != null && maxDepth < 1) {
+			throw new ValidationException("maxDepth must be at least 1");
+		}
+		final int rootDepth = root.getLevel().depth();
+		final Set<AdminLevel> levels = EnumSet.noneOf(AdminLevel.class);
+		for(AdminLevel candidate : AdminLevel.values()) {
+			final int below = candidate.depth() - rootDepth;
+			if(below < 1 || (maxDepth != null && below > maxDepth) || (level != null && candidate != level)) {
+				continue;
+			}
+			levels.add(candidate);
+		}
+		return levels;
+	}
+
+	@FunctionalInterface
+	private interface DescendantQuery {
+		Flux<AdminArea> find(String code, Set<AdminLevel> levels, Sort sort);
+	}
+
+	/*
+	 batch get :
+	 trim, drop blanks, dedupe and sort the codes
+	 => snapshot lookups, or one $in query per chunk of batchChunkSize codes
+	 	(chunks are in code order and each query is sorted, so found stays sorted)
+	 => missing = requested codes that were not found
+	 * */
+	@Override
+	public Mono<BatchGetResponse<AdminAreaResponse>> batchGet(Collection<String> codes) {
+		return batchGet(codes, repository::findByCodeIn, mapper::toResponse);
+	}
+
+	@Override
+	public Mono<BatchGetResponse<AdminAreaSlimResponse>> batchGetSlim(Collection<String> codes) {
+		return batchGet(codes, repository::findSlimByCodeIn, mapper::toSlimResponse);
+	}
+
+	private <T> Mono<BatchGetResponse<T>> batchGet(final Collection<String> codes, final CodeInQuery query,
+			final Function<AdminArea, T> toResponse){
+		return Mono.fromCallable(() -> normalizeCodes(codes))
+				.flatMap(requested -> findByCodes(requested, query)
+						.collectList()
+						.map(found -> toBatchResponse(requested, found, toResponse)));
+	}
+
+	// sortedCodes must be sorted and unique, the result is then sorted by code too
+	private Flux<AdminArea> findByCodes(final List<String> sortedCodes, final CodeInQuery query){
+		return snapshotHolder.current()
+				.map(snapshot -> Flux.fromIterable(sortedCodes).mapNotNull(code -> snapshot.get(code).orElse(null)))
+				.orElseGet(() -> Flux.fromIterable(sortedCodes)
+						.buffer(batchChunkSize)
+						.concatMap(chunk -> query.find(chunk, DEFAULT_SORT)));
+	}
+
+	private List<String> normalizeCodes(final Collection<String> codes){
+		final TreeSet<String> unique = new TreeSet<>();
+		if(codes != null) {
+			for(String code : codes) {
+				if(StringUtils.hasText(code)) {
+					unique.add(code.trim());
+				}
+			}
+		}
+		if(unique.size() > batchMaxCodes) {
+			throw new ValidationException("At most " + batchMaxCodes + " codes per request");
+		}
+		return new ArrayList<>(unique);
+	}
+
+	private <T> BatchGetResponse<T> toBatchResponse(final List<String> requested, final List<AdminArea> found,
+			final Function<AdminArea, T> toResponse){
+		final Set<String> foundCodes = new HashSet<>(found.size() * 2);
+		final List<T> responses = new ArrayList<>(found.size());
+		for(AdminArea area : found) {
+			foundCodes.add(area.getCode());
+			responses.add(toResponse.apply(area));
+		}
+
+		final List<String> missing = new ArrayList<>();
+		for(String code : requested) {
+			if(!foundCodes.contains(code)) {
+				missing.add(code);
+			}
+		}
+		return new BatchGetResponse<>(responses, missing);
+	}
+
+	/*
+	 ancestors :
+	 every ancestor code is a prefix of the code (mapper.buildPath), so there is nothing to walk
+	 => one lookup for all the path codes (snapshot or $in query)
+	 => ordered by path : province down
+	 a missing intermediate ancestor is skipped, a missing code is not found
+	 * */
+	@Override
+	public Flux<AdminAreaResponse> ancestors(String code, boolean includeSelf) {
+		final String trimmed = code.trim();
+		return findByCodes(mapper.buildPath(trimmed), repository::findByCodeIn)
+				.collectMap(AdminArea::getCode)
+				.flatMapIterable(byCode -> {
+					if(!byCode.containsKey(trimmed)) {
+						throw new AdminAreaNotFoundException(trimmed);
+					}
+					return toAncestors(trimmed, byCode, includeSelf);
+				});
+	}
+
+	@Override
+	public Mono<BatchGetResponse<AdminAreaAncestors>> ancestorsBatch(Collection<String> codes, boolean includeSelf) {
+		return Mono.fromCallable(() -> normalizeCodes(codes))
+				.flatMap(requested -> {
+					final TreeSet<String> pathCodes = new TreeSet<>();
+					requested.forEach(code -> pathCodes.addAll(mapper.buildPath(code)));
+					return findByCodes(new ArrayList<>(pathCodes), repository::findByCodeIn)
+							.collectMap(AdminArea::getCode)
+							.map(byCode -> {
+								final List<AdminAreaAncestors> found = new ArrayList<>();
+								final List<String> missing = new ArrayList<>();
+								for(String code : requested) {
+									if(byCode.containsKey(code)) {
+										found.add(new AdminAreaAncestors(code, toAncestors(code, byCode, includeSelf)));
+									}else {
+										missing.add(code);
+									}
+								}
+								return new BatchGetResponse<>(found, missing);
+							});
+				});
+	}
+
+	private List<AdminAreaResponse> toAncestors(final String code, final Map<String, AdminArea> byCode, final boolean includeSelf){
+		final List<AdminAreaResponse> ancestors = new ArrayList<>();
+		for(String pathCode : mapper.buildPath(code)) {
+			if(!includeSelf && pathCode.equals(code)) {
+				continue;
+			}
+			final AdminArea area = byCode.get(pathCode);
+			if(area != null) {
+				ancestors.add(mapper.toResponse(area));
+			}
+		}
+		return ancestors;
+	}
+
+	@FunctionalInterface
+	private interface CodeInQuery {
+		Flux<AdminArea> find(List<String> codes, Sort sort);
+	}
+
+	private Flux<AdminAreaResponse> queryList(AdminLevel level, String parentCode) {
 		
 		final boolean hasLevel = Objects.nonNull(level);
 		final boolean hasParent = StringUtils.hasText(parentCode);
@@ -159,8 +518,7 @@ public class AdminAreaServiceImpl implements AdminAreaService{
 		return repository.findAll(DEFAULT_SORT).map(mapper::toResponse);
 	}
 
-	@Override
-	public Flux<AdminAreaSlimResponse> listSlim(AdminLevel level, String parentCode) {
+	private Flux<AdminAreaSlimResponse> queryListSlim(AdminLevel level, String parentCode) {
 		final boolean hasLevel = Objects.nonNull(level);
 		final boolean hasParent = StringUtils.hasText(parentCode);
 		
@@ -0,0 +1,74 @@
+package com.piseth.java.school.addressservice.service.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.piseth.java.school.addressservice.cache.DatasetVersion;
+import com.piseth.java.school.addressservice.dto.AdminAreaSlimResponse;
+import com.piseth.java.school.addressservice.service.AdminAreaService;
+import com.piseth.java.school.addressservice.service.AdminAreaSnapshotService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ *  -The version is read before building, so a write during the build only makes
+ *   the next call rebuild (never serves old bytes for a newer version)
+ *  -Concurrent callers of the same version share one build (Mono.cache),
+ *   a failed build is not cached
+ * */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdminAreaSnapshotServiceImpl implements AdminAreaSnapshotService{
+
+	private final AdminAreaService adminAreaService;
+	private final DatasetVersion datasetVersion;
+	private final ObjectMapper objectMapper;
+
+	private final AtomicReference<Build> current = new AtomicReference<>();
+
+	@Override
+	public Mono<byte[]> gzippedSlimTree() {
+		final long version = datasetVersion.current();
+		final Build build = current.get();
+		if(build != null && build.version() == version) {
+			return build.gzip();
+		}
+
+		final Build next = new Build(version, build(version));
+		return current.compareAndSet(build, next) ? next.gzip() : gzippedSlimTree();
+	}
+
+	private Mono<byte[]> build(final long version){
+		return adminAreaService.listSlim(null, null)
+				.collectList()
+				.publishOn(Schedulers.boundedElastic())
+				.map(this::gzip)
+				.doOnNext(bytes -> log.debug("Slim tree snapshot built for version {}: {} bytes gzipped", version, bytes.length))
+				.cache(bytes -> Duration.ofMillis(Long.MAX_VALUE), ex -> Duration.ZERO, () -> Duration.ZERO);
+	}
+
+	private byte[] gzip(final List<AdminAreaSlimResponse> areas) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try(GZIPOutputStream gzip = new GZIPOutputStream(out)){
+			objectMapper.writeValue(gzip, areas);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return out.toByteArray();
+	}
+
+	private record Build(long version, Mono<byte[]> gzip) {
+	}
+}
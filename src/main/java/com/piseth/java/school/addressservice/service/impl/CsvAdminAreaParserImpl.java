@@ -0,0 +1,192 @@
+package com.piseth.java.school.addressservice.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.stereotype.Component;
+
+import com.piseth.java.school.addressservice.dto.ParsedRow;
+import com.piseth.java.school.addressservice.service.ExcelAdminAreaParser;
+import com.piseth.java.school.addressservice.service.helper.ParsedRowSupport;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ *  -We decode FilePart.content() buffer by buffer into lines (StringDecoder, UTF-8),
+ *   the file is never joined in memory
+ *  -RFC 4180 fields : comma separated, "quoted" fields may hold commas, "" and line breaks
+ *  -First record is the header (lowercase, same required columns as the Excel upload)
+ *  -lineNumber is the physical line where the record starts (header = line 1)
+ * */
+@Component
+@Order(1)
+public class CsvAdminAreaParserImpl implements ExcelAdminAreaParser{
+
+	private static final Set<String> EXTENSIONS = Set.of("csv");
+	private static final Set<MediaType> TYPES = Set.of(
+			MediaType.parseMediaType("text/csv"),
+			MediaType.parseMediaType("application/csv"));
+
+	private final StringDecoder lineDecoder = StringDecoder.allMimeTypes(List.of("\n"), true);
+
+	@Override
+	public boolean supports(FilePart file) {
+		return ParsedRowSupport.isFormat(file, EXTENSIONS, TYPES);
+	}
+
+	@Override
+	public Flux<ParsedRow> parse(FilePart file) {
+		return Flux.defer(() -> {
+			final CsvReader reader = new CsvReader();
+			return lineDecoder.decode(file.content(), ResolvableType.forClass(String.class), null, Map.of())
+				.<ParsedRow>handle((line, sink) -> {
+					final ParsedRow row = reader.accept(line);
+					if(row != null) {
+						sink.next(row);
+					}
+				})
+				.concatWith(Mono.<ParsedRow>fromRunnable(reader::finish));
+		});
+	}
+
+	/**
+	 * Assembles physical lines into records (a quoted field can span lines)
+	 * and records into ParsedRow. One instance per parse.
+	 */
+	private static final class CsvReader {
+
+		private int lineNumber;
+		private Map<String, Integer> header;
+
+		private StringBuilder pending;
+		private int pendingStart;
+		private int pendingQuotes;
+
+		ParsedRow accept(final String rawLine) {
+			lineNumber++;
+			String line = rawLine.endsWith("\r") ? rawLine.substring(0, rawLine.length() - 1) : rawLine;
+			if(lineNumber == 1 && line.startsWith("\uFEFF")) {
+				line = line.substring(1);
+			}
+
+			if(pending == null) {
+				pending = new StringBuilder(line);
+				pendingStart = lineNumber;
+				pendingQuotes = 0;
+			}else {
+				pending.append('\n').append(line);
+			}
+			pendingQuotes += quotes(line);
+
+			// odd number of quotes : a quoted field continues on the next line
+			if(pendingQuotes % 2 != 0) {
+				return null;
+			}
+
+			final String record = pending.toString();
+			pending = null;
+			return toRow(pendingStart, record);
+		}
+
+		void finish() {
+			if(pending != null) {
+				throw new IllegalArgumentException("Unterminated quoted field starting at line " + pendingStart);
+			}
+			if(header == null) {
+				throw new IllegalArgumentException("Missing header row");
+			}
+		}
+
+		private ParsedRow toRow(final int line, final String record) {
+			if(header == null) {
+				if(ParsedRowSupport.isBlank(record)) {
+					return null;
+				}
+				header = headerIndex(split(record));
+				return null;
+			}
+			if(ParsedRowSupport.isBlank(record)) {
+				return null;
+			}
+
+			final List<String> fields = split(record);
+			return ParsedRowSupport.toRow(line,
+					field(fields, "code"),
+					field(fields, "level"),
+					field(fields, "parentcode"),
+					field(fields, "namekh"),
+					field(fields, "nameen"));
+		}
+
+		private String field(final List<String> fields, final String name) {
+			final int col = header.get(name);
+			return col < fields.size() ? ParsedRowSupport.clean(fields.get(col)) : null;
+		}
+
+		private static Map<String, Integer> headerIndex(final List<String> names) {
+			final Map<String, Integer> idx = new HashMap<>();
+			for(int c = 0; c < names.size(); c++) {
+				final String key = names.get(c).trim().toLowerCase(Locale.ROOT);
+				if(!key.isBlank()) {
+					idx.put(key, c);
+				}
+			}
+			if(!idx.keySet().containsAll(ParsedRowSupport.REQUIRED_HEADERS)) {
+				throw new IllegalArgumentException(ParsedRowSupport.MISSING_HEADERS_MESSAGE);
+			}
+			return idx;
+		}
+
+		private static int quotes(final String line) {
+			int n = 0;
+			for(int i = 0; i < line.length(); i++) {
+				if(line.charAt(i) == '"') {
+					n++;
+				}
+			}
+			return n;
+		}
+
+		private static List<String> split(final String record) {
+			final List<String> fields = new ArrayList<>(5);
+			final StringBuilder field = new StringBuilder();
+			boolean quoted = false;
+
+			for(int i = 0; i < record.length(); i++) {
+				final char ch = record.charAt(i);
+				if(quoted) {
+					if(ch == '"') {
+						if(i + 1 < record.length() && record.charAt(i + 1) == '"') {
+							field.append('"');
+							i++;
+						}else {
+							quoted = false;
+						}
+					}else {
+						field.append(ch);
+					}
+				}else if(ch == '"') {
+					quoted = true;
+				}else if(ch == ',') {
+					fields.add(field.toString());
+					field.setLength(0);
+				}else {
+					field.append(ch);
+				}
+			}
+			fields.add(field.toString());
+			return fields;
+		}
+	}
+
+}
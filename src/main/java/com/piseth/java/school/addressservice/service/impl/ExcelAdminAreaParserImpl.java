@@ -6,7 +6,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.DataFormatter;
@@ -14,14 +13,17 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.stereotype.Component;
 
-import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
 import com.piseth.java.school.addressservice.dto.ParsedRow;
 import com.piseth.java.school.addressservice.service.ExcelAdminAreaParser;
+import com.piseth.java.school.addressservice.service.helper.ParsedRowSupport;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -32,6 +34,8 @@ import reactor.core.scheduler.Schedulers;
  *  -We run blocking POI work on (boundedElastic)
  *  -We normalize header to lowercase
  *  -We use DataFormatter to get cell values as displayed text
+ *  -Only active with address.import.excel.streaming=false, the default is
+ *   StreamingExcelAdminAreaParserImpl which does not build the whole Workbook
  * 
  * 
  * 
@@ -41,11 +45,15 @@ import reactor.core.scheduler.Schedulers;
 
 
 @Component
+@ConditionalOnProperty(name = "address.import.excel.streaming", havingValue = "false")
+@Order(Ordered.LOWEST_PRECEDENCE)
 public class ExcelAdminAreaParserImpl implements ExcelAdminAreaParser{
-	
-	private static final Set<String> REQUIRED_HAEDERS = Set.of(
-			"code","level","parentcode","namekh","nameen"
-			);
+
+	// fallback for every upload the csv / ndjson parsers do not claim, as before they existed
+	@Override
+	public boolean supports(FilePart file) {
+		return true;
+	}
 
 	@Override
 	public Flux<ParsedRow> parse(FilePart file) {
@@ -92,8 +100,8 @@ public class ExcelAdminAreaParserImpl implements ExcelAdminAreaParser{
 			}
 			
 			Map<String, Integer> idx = headerIndex(header, fmt);
-			if(!idx.keySet().containsAll(REQUIRED_HAEDERS)) {
-				throw new IllegalArgumentException("Header must include: code, level, parentCode, nameKh, nameEn");
+			if(!idx.keySet().containsAll(ParsedRowSupport.REQUIRED_HEADERS)) {
+				throw new IllegalArgumentException(ParsedRowSupport.MISSING_HEADERS_MESSAGE);
 			}
 			
 			final int last = sheet.getLastRowNum();
@@ -109,39 +117,16 @@ public class ExcelAdminAreaParserImpl implements ExcelAdminAreaParser{
 				final String nameKh = cell(row, idx.get("namekh"), fmt);
 				final String nameEn = cell(row, idx.get("nameen"), fmt);
 				
-				if(isBlank(code) && 
-						isBlank(level) && 
-						isBlank(parent) && 
-						isBlank(nameEn) && 
-						isBlank(nameKh)) {
-					continue;
+				final ParsedRow parsed = ParsedRowSupport.toRow(r + 1, code, level, parent, nameKh, nameEn);
+				if(parsed != null) {
+					out.add(parsed);
 				}
-				
-				final AdminLevel adminLevel = parseLevel(level);
-				out.add(new ParsedRow(r +1, code, adminLevel, parent, nameKh, nameEn));
 			}
 		}
 		
 		return out;
 	}
 	
-	private AdminLevel parseLevel(final String raw) {
-		if(raw == null) {
-			return null;
-		}
-		final String u = raw.trim().toUpperCase();
-		for(AdminLevel lvl : AdminLevel.values()) {
-			if(lvl.name().equals(u)) {
-				return lvl;
-			}
-		}
-		throw new IllegalArgumentException("Unknown level");
-	}
-	
-	private boolean isBlank(String s) {
-		return s == null || s.trim().isEmpty();
-	}
-	
 	private String cell(final Row row, final Integer col, final DataFormatter fmt) {
 		if(row == null || col == null) {
 			return null;
@@ -150,15 +135,7 @@ public class ExcelAdminAreaParserImpl implements ExcelAdminAreaParser{
 		if(cell == null) {
 			return null;
 		}
-		final String v = fmt.formatCellValue(cell);
-		if(v == null) {
-			return null;
-		}
-		final String t = v.trim();
-		if(t.isEmpty()) {
-			return null;
-		}
-		return t;
+		return ParsedRowSupport.clean(fmt.formatCellValue(cell));
 	}
 	
 	private Map<String, Integer> headerIndex(final Row header, final DataFormatter fmt){
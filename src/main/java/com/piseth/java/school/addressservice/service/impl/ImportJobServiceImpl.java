@@ -0,0 +1,149 @@
+package com.piseth.java.school.addressservice.service.impl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.piseth.java.school.addressservice.domain.enumeration.ImportJobStatus;
+import com.piseth.java.school.addressservice.dto.ImportCounter;
+import com.piseth.java.school.addressservice.dto.ImportJobResponse;
+import com.piseth.java.school.addressservice.dto.ImportOptions;
+import com.piseth.java.school.addressservice.dto.ImportProgress;
+import com.piseth.java.school.addressservice.dto.UploadSummary;
+import com.piseth.java.school.addressservice.service.AdminAreaImportService;
+import com.piseth.java.school.addressservice.service.ImportJobService;
+import com.piseth.java.school.addressservice.service.helper.ImportJob;
+import com.piseth.java.school.addressservice.service.helper.ImportJobRegistry;
+import com.piseth.java.school.addressservice.service.helper.PathFilePart;
+import com.piseth.java.school.addressservice.service.helper.RowErrorClassifier;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ *  -The upload is copied to a temp file while the request is still open
+ *  -The import then runs in the background on that copy (PathFilePart),
+ *   the HTTP response only carries the job id
+ *  -Progress is sampled every progressInterval for the SSE stream
+ * */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportJobServiceImpl implements ImportJobService{
+
+	private static final String BASE_URL = "/api/admin-areas/imports/";
+
+	private final AdminAreaImportService importService;
+	private final ImportJobRegistry registry;
+	private final RowErrorClassifier rowErrorClassifier;
+
+	@Value("${address.import.jobs.progress-interval:500ms}")
+	private Duration progressInterval;
+
+	@Override
+	public Mono<ImportJobResponse> submit(FilePart file, ImportOptions options) {
+		return Mono.fromCallable(() -> registry.register(options))
+			.flatMap(job -> copyToTempFile(file)
+					.doOnNext(copy -> start(job, copy))
+					.doOnError(ex -> job.fail(rowErrorClassifier.safeMessage(ex)))
+					.thenReturn(job))
+			.map(this::toResponse);
+	}
+
+	private Mono<PathFilePart> copyToTempFile(final FilePart file){
+		return Mono.fromCallable(() -> Files.createTempFile("admin-areas-job-", ".upload"))
+			.subscribeOn(Schedulers.boundedElastic())
+			.flatMap(path -> file.transferTo(path)
+					.thenReturn(PathFilePart.copyOf(file, path))
+					.onErrorResume(ex -> deleteQuietly(path).then(Mono.error(ex))));
+	}
+
+	// a failed copy leaves no partial upload behind
+	private Mono<Void> deleteQuietly(final Path path){
+		return Mono.fromCallable(() -> Files.deleteIfExists(path))
+			.subscribeOn(Schedulers.boundedElastic())
+			.doOnError(ex -> log.warn("Could not delete upload copy {}", path, ex))
+			.onErrorResume(ex -> Mono.empty())
+			.then();
+	}
+
+	private void start(final ImportJob job, final PathFilePart copy) {
+		importService.importExcel(copy, job.getOptions(), job::onProgress)
+			.doFinally(signal -> copy.delete().subscribe())
+			.subscribe(
+					job::complete,
+					ex -> {
+						log.warn("Import job {} failed", job.getId(), ex);
+						job.fail(rowErrorClassifier.safeMessage(ex));
+					});
+	}
+
+	@Override
+	public Mono<ImportJobResponse> get(String jobId) {
+		return find(jobId).map(this::toResponse);
+	}
+
+	@Override
+	public Flux<ImportProgress> events(String jobId) {
+		return find(jobId)
+			.flatMapMany(job -> job.getStatus() != ImportJobStatus.RUNNING
+					// finished : only the terminal event, no replayed RUNNING snapshot
+					? Flux.just(toProgress(job, job.getStatus(), job.getCounter()))
+					: job.progress()
+					.sample(progressInterval)
+					.map(counter -> toProgress(job, ImportJobStatus.RUNNING, counter))
+					.concatWith(Mono.fromSupplier(() -> toProgress(job, job.getStatus(), job.getCounter()))));
+	}
+
+	@Override
+	public Mono<UploadSummary> summary(String jobId) {
+		return find(jobId)
+			.flatMap(job -> {
+				if(job.getStatus() == ImportJobStatus.RUNNING) {
+					return Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "Import job is still running: " + jobId));
+				}
+				if(job.getStatus() == ImportJobStatus.FAILED) {
+					return Mono.error(new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, job.getError()));
+				}
+				return Mono.just(job.getSummary());
+			});
+	}
+
+	private Mono<ImportJob> find(final String jobId){
+		return Mono.justOrEmpty(registry.find(jobId))
+			.switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Import job not found: " + jobId)));
+	}
+
+	private ImportProgress toProgress(final ImportJob job, final ImportJobStatus status, final ImportCounter counter) {
+		return ImportProgress.builder()
+				.jobId(job.getId())
+				.status(status)
+				.counter(counter)
+				.error(job.getError())
+				.build();
+	}
+
+	private ImportJobResponse toResponse(final ImportJob job) {
+		return ImportJobResponse.builder()
+				.jobId(job.getId())
+				.status(job.getStatus())
+				.dryRun(job.isDryRun())
+				.mode(job.getOptions().mode())
+				.createdAt(job.getCreatedAt())
+				.finishedAt(job.getFinishedAt())
+				.counter(job.getCounter())
+				.error(job.getError())
+				.eventsUrl(BASE_URL + job.getId() + "/events")
+				.summaryUrl(BASE_URL + job.getId() + "/summary")
+				.build();
+	}
+}
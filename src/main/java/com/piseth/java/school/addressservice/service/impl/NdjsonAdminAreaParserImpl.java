@@ -0,0 +1,96 @@
+package com.piseth.java.school.addressservice.service.impl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.piseth.java.school.addressservice.dto.ParsedRow;
+import com.piseth.java.school.addressservice.service.ExcelAdminAreaParser;
+import com.piseth.java.school.addressservice.service.helper.ParsedRowSupport;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+/**
+ *  -We decode FilePart.content() buffer by buffer into lines, the file is never joined in memory
+ *  -One JSON object per line : {"code":"1201","level":"DISTRICT","parentCode":"12","nameKh":"..","nameEn":".."}
+ *   keys are matched case-insensitively, missing / null keys are null
+ *  -No header, lineNumber is the physical line (1 based), blank lines are skipped
+ * */
+@Component
+@Order(2)
+@RequiredArgsConstructor
+public class NdjsonAdminAreaParserImpl implements ExcelAdminAreaParser{
+
+	private static final Set<String> EXTENSIONS = Set.of("ndjson", "jsonl");
+	private static final Set<MediaType> TYPES = Set.of(
+			MediaType.APPLICATION_NDJSON,
+			MediaType.parseMediaType("application/jsonl"));
+
+	private final ObjectMapper objectMapper;
+
+	private final StringDecoder lineDecoder = StringDecoder.allMimeTypes(List.of("\n"), true);
+
+	@Override
+	public boolean supports(FilePart file) {
+		return ParsedRowSupport.isFormat(file, EXTENSIONS, TYPES);
+	}
+
+	@Override
+	public Flux<ParsedRow> parse(FilePart file) {
+		return Flux.defer(() -> {
+			final AtomicInteger lineNumber = new AtomicInteger();
+			return lineDecoder.decode(file.content(), ResolvableType.forClass(String.class), null, Map.of())
+				.<ParsedRow>handle((line, sink) -> {
+					final ParsedRow row = toRow(lineNumber.incrementAndGet(), line);
+					if(row != null) {
+						sink.next(row);
+					}
+				});
+		});
+	}
+
+	private ParsedRow toRow(final int lineNumber, final String rawLine) {
+		final String line = lineNumber == 1 && rawLine.startsWith("\uFEFF") ? rawLine.substring(1) : rawLine;
+		if(ParsedRowSupport.isBlank(line)) {
+			return null;
+		}
+
+		final JsonNode node;
+		try {
+			node = objectMapper.readTree(line);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalArgumentException("Invalid JSON at line " + lineNumber, ex);
+		}
+		if(!node.isObject()) {
+			throw new IllegalArgumentException("Line " + lineNumber + " is not a JSON object");
+		}
+
+		final Map<String, String> fields = new HashMap<>();
+		for(Map.Entry<String, JsonNode> e : node.properties()) {
+			final JsonNode value = e.getValue();
+			fields.put(e.getKey().toLowerCase(Locale.ROOT), value == null || value.isNull() ? null : value.asText());
+		}
+
+		return ParsedRowSupport.toRow(lineNumber,
+				ParsedRowSupport.clean(fields.get("code")),
+				ParsedRowSupport.clean(fields.get("level")),
+				ParsedRowSupport.clean(fields.get("parentcode")),
+				ParsedRowSupport.clean(fields.get("namekh")),
+				ParsedRowSupport.clean(fields.get("nameen")));
+	}
+
+}
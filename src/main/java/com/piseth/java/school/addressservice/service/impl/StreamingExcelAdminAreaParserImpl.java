@@ -0,0 +1,272 @@
+package com.piseth.java.school.addressservice.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import com.piseth.java.school.addressservice.dto.ParsedRow;
+import com.piseth.java.school.addressservice.service.ExcelAdminAreaParser;
+import com.piseth.java.school.addressservice.service.helper.ParsedRowSupport;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ *  -We copy the upload to a temp file (FilePart.transferTo, no join in memory)
+ *  -We open it with OPCPackage in READ mode and read the first sheet with the
+ *   POI event (SAX) reader, so no Workbook / Row / Cell objects are built
+ *  -Rows are emitted as soon as they are read, and only as fast as they are requested : the SAX
+ *   thread (boundedElastic) waits for demand before each row, so nothing is buffered in between
+ *  -The temp file is deleted when the Flux terminates
+ *  -Same rules as ExcelAdminAreaParserImpl : lowercase header, DataFormatter(Locale.ROOT)
+ *   display text, blank rows skipped, lineNumber = excel row number
+ * */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "address.import.excel.streaming", havingValue = "true", matchIfMissing = true)
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class StreamingExcelAdminAreaParserImpl implements ExcelAdminAreaParser{
+
+	// fallback for every upload the csv / ndjson parsers do not claim, as before they existed
+	@Override
+	public boolean supports(FilePart file) {
+		return true;
+	}
+
+	@Override
+	public Flux<ParsedRow> parse(FilePart file) {
+		return Flux.usingWhen(
+				Mono.fromCallable(() -> Files.createTempFile("admin-areas-", ".xlsx"))
+					.subscribeOn(Schedulers.boundedElastic()),
+				path -> file.transferTo(path).thenMany(readRows(path)),
+				path -> Mono.fromRunnable(() -> deleteQuietly(path))
+					.subscribeOn(Schedulers.boundedElastic()));
+	}
+
+	private Flux<ParsedRow> readRows(final Path path){
+		return Flux.<ParsedRow>create(sink -> {
+			final Demand demand = new Demand();
+			sink.onRequest(demand::add);
+			sink.onCancel(demand::cancel);
+			try {
+				readFirstSheet(path, sink, demand);
+				sink.complete();
+			} catch (ParsingCancelled ex) {
+				log.debug("Excel parsing cancelled: {}", path);
+			} catch (Exception ex) {
+				sink.error(ex);
+			}
+		}, FluxSink.OverflowStrategy.ERROR)
+		// requestOnSeparateThread=false : request(n) must reach the sink, not queue behind the blocked SAX thread
+		.subscribeOn(Schedulers.boundedElastic(), false);
+	}
+
+	private void readFirstSheet(final Path path, final FluxSink<ParsedRow> sink, final Demand demand) throws Exception{
+		try(OPCPackage pkg = OPCPackage.open(path.toFile(), PackageAccess.READ)){
+			final XSSFReader reader = new XSSFReader(pkg);
+			final Iterator<InputStream> sheets = reader.getSheetsData();
+			if(!sheets.hasNext()) {
+				throw new IllegalArgumentException("Excel file has no sheet!");
+			}
+
+			final RowHandler handler = new RowHandler(sink, demand);
+			try(InputStream sheet = sheets.next()){
+				final XMLReader xml = XMLHelper.newXMLReader();
+				// formulasNotResults=true : same text DataFormatter.formatCellValue gives without an evaluator
+				xml.setContentHandler(new XSSFSheetXMLHandler(
+						reader.getStylesTable(),
+						new ReadOnlySharedStringsTable(pkg),
+						handler,
+						new DataFormatter(Locale.ROOT),
+						true));
+				xml.parse(new InputSource(sheet));
+			}
+
+			if(handler.index == null) {
+				throw new IllegalArgumentException("Missing header row");
+			}
+		}
+	}
+
+	private void deleteQuietly(final Path path) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException ex) {
+			log.warn("Could not delete temp upload {}", path, ex);
+		}
+	}
+
+	/**
+	 * Receives the cells of one row at a time. Row 0 is the header, every other
+	 * row is turned into a ParsedRow and pushed to the sink at endRow.
+	 */
+	private static final class RowHandler implements SheetContentsHandler {
+
+		private static final String[] FIELDS = {"code", "level", "parentcode", "namekh", "nameen"};
+
+		private final FluxSink<ParsedRow> sink;
+		private final Demand demand;
+		private final Map<String, Integer> header = new HashMap<>();
+
+		// column index -> position in FIELDS (or -1), built from the header row
+		private int[] index;
+		private final String[] values = new String[FIELDS.length];
+		private int rowNum;
+
+		private RowHandler(final FluxSink<ParsedRow> sink, final Demand demand) {
+			this.sink = sink;
+			this.demand = demand;
+		}
+
+		@Override
+		public void startRow(int rowNum) {
+			if(sink.isCancelled()) {
+				throw new ParsingCancelled();
+			}
+			if(index == null && rowNum != 0) {
+				throw new IllegalArgumentException("Missing header row");
+			}
+			this.rowNum = rowNum;
+			Arrays.fill(values, null);
+		}
+
+		@Override
+		public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+			final int col = column(cellReference);
+			if(col < 0) {
+				return;
+			}
+
+			if(rowNum == 0) {
+				final String key = formattedValue != null ? formattedValue.trim().toLowerCase(Locale.ROOT) : "";
+				if(!key.isBlank()) {
+					header.put(key, col);
+				}
+				return;
+			}
+
+			if(col < index.length && index[col] >= 0) {
+				values[index[col]] = ParsedRowSupport.clean(formattedValue);
+			}
+		}
+
+		@Override
+		public void endRow(int rowNum) {
+			if(rowNum == 0) {
+				buildIndex();
+				return;
+			}
+
+			final ParsedRow row = ParsedRowSupport.toRow(rowNum + 1,
+					values[0], values[1], values[2], values[3], values[4]);
+			if(row != null) {
+				demand.take();
+				sink.next(row);
+			}
+		}
+
+		private void buildIndex() {
+			if(!header.keySet().containsAll(ParsedRowSupport.REQUIRED_HEADERS)) {
+				throw new IllegalArgumentException(ParsedRowSupport.MISSING_HEADERS_MESSAGE);
+			}
+			int max = 0;
+			for(String field : FIELDS) {
+				max = Math.max(max, header.get(field));
+			}
+			index = new int[max + 1];
+			Arrays.fill(index, -1);
+			for(int f = 0; f < FIELDS.length; f++) {
+				index[header.get(FIELDS[f])] = f;
+			}
+		}
+
+		// "AB12" -> 27 (0 based), without allocating a CellReference per cell
+		private static int column(final String cellReference) {
+			if(cellReference == null) {
+				return -1;
+			}
+			int col = 0;
+			for(int i = 0; i < cellReference.length(); i++) {
+				final char ch = cellReference.charAt(i);
+				if(ch < 'A' || ch > 'Z') {
+					break;
+				}
+				col = col * 26 + (ch - 'A' + 1);
+			}
+			return col - 1;
+		}
+	}
+
+	/**
+	 * Rows requested downstream and not emitted yet, the SAX thread blocks in take()
+	 * until there is one (or the subscriber cancelled).
+	 */
+	private static final class Demand {
+
+		private long requested;
+		private boolean cancelled;
+
+		synchronized void add(final long n) {
+			requested = Long.MAX_VALUE - requested < n ? Long.MAX_VALUE : requested + n;
+			notifyAll();
+		}
+
+		synchronized void cancel() {
+			cancelled = true;
+			notifyAll();
+		}
+
+		synchronized void take() {
+			try {
+				while(requested == 0 && !cancelled) {
+					wait();
+				}
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new ParsingCancelled();
+			}
+			if(cancelled) {
+				throw new ParsingCancelled();
+			}
+			if(requested != Long.MAX_VALUE) {
+				requested--;
+			}
+		}
+	}
+
+	private static final class ParsingCancelled extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		private ParsingCancelled() {
+			super(null, null, false, false);
+		}
+	}
+
+}
@@ -1,18 +1,17 @@
 package com.piseth.java.school.addressservice.validator;
 
 import java.util.Objects;
-import java.util.regex.Pattern;
 
 import org.springframework.stereotype.Component;
 
 import com.piseth.java.school.addressservice.domain.AdminArea;
+import com.piseth.java.school.addressservice.domain.AdminCode;
 import com.piseth.java.school.addressservice.domain.enumeration.AdminLevel;
 import com.piseth.java.school.addressservice.exception.ValidationException;
 
 @Component
 public class AdminAreaValidator {
-	// 2, 4, 6, 0r 8 digit (ex: 12, 1201, 120101, 12010101)
-	private static final Pattern CODE_PATTERN = Pattern.compile("^\\d{2}(?:\\d{2}){0,3}$");
+	// 2, 4, 6, 0r 8 digit (ex: 12, 1201, 120101, 12010101), checked by AdminCode.parse
 	
 	public void validate(AdminArea request) {
 		
@@ -29,13 +28,12 @@ public class AdminAreaValidator {
 		}
 		
 		
-		if(!CODE_PATTERN.matcher(request.getCode()).matches()) {
+		final int code = AdminCode.parse(request.getCode());
+		if(!AdminCode.isValid(code)) {
 			throw new ValidationException("code must look like 12 or 12030902");
 		}
 		
-		final String code = request.getCode().trim();
-		
-		final int depth = code.length() / 2;
+		final int depth = AdminCode.depth(code);
 		final int expectedDepth = request.getLevel().depth();
 		
 		if(depth != expectedDepth) {
@@ -53,11 +51,12 @@ public class AdminAreaValidator {
 				throw new IllegalArgumentException("ParentCode is required for : " + request.getLevel());
 			}
 			
-			if(!CODE_PATTERN.matcher(parentCode).matches()) {
+			final int parent = AdminCode.parse(parentCode);
+			if(!AdminCode.isValid(parent)) {
 				throw new ValidationException("parentCode must look like 12 or 120309");
 			}
 			
-			if(!request.getCode().startsWith(parentCode)) {
+			if(!AdminCode.startsWith(code, parent)) {
 				throw new IllegalArgumentException("code must start with parentCode");
 			}
 		}